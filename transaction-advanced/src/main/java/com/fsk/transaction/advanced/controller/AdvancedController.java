@@ -324,6 +324,25 @@ public class AdvancedController {
         return ResponseEntity.ok(employee);
     }
     
+    /**
+     * 24. Cache tutarsızlığı - ÇÖZÜM 2 (Tx-aware cache)
+     * fail=true: rollback olur, cache güncellenmez
+     * 
+     * curl -X PUT "http://localhost:8086/api/advanced/cache-tx-aware/1?newSalary=10000&fail=true"
+     */
+    @PutMapping("/cache-tx-aware/{id}")
+    public ResponseEntity<String> testTransactionAwareCache(
+            @PathVariable Long id,
+            @RequestParam Double newSalary,
+            @RequestParam(defaultValue = "false") boolean fail) {
+        try {
+            cacheService.updateEmployeeWithTransactionAwareCache(id, newSalary, fail);
+        } catch (RuntimeException e) {
+            return ResponseEntity.ok("Rollback oldu, bekleyen cache güncellemesi atıldı! " + e.getMessage());
+        }
+        return ResponseEntity.ok("Commit oldu, cache güncellendi: " + cacheService.getEmployeeFromTransactionAwareCache(id).orElse(null));
+    }
+    
     /**
      * Cache'den okuma
      * 
@@ -6,6 +6,9 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -35,6 +38,9 @@ public class CacheService {
     // Basit in-memory cache (transaction-aware değil)
     private final Map<Long, Employee> cache = new HashMap<>();
     
+    // ÇÖZÜM 2 için ayrı cache: Spring'in decorator'ı put / evict'i afterCommit'e erteler (Tx-aware cache)
+    private final Cache transactionAwareCache = new TransactionAwareCacheDecorator(new ConcurrentMapCache("employees"));
+    
     /**
      * PROBLEM: Cache transaction içinde güncellenirse
      * Transaction rollback olsa bile cache güncellenmiş kalır
@@ -92,6 +98,30 @@ public class CacheService {
         log.info("Cache güncellendi: {}", event.getEmployeeId());
     }
     
+    /**
+     * ÇÖZÜM 2: Transaction-aware cache
+     * Spring'in TransactionAwareCacheDecorator'ı put'u afterCommit'e erteler, rollback'te hiç uygulanmaz.
+     * Event class'ı ve listener gerekmez.
+     */
+    @Transactional
+    public Employee updateEmployeeWithTransactionAwareCache(Long id, Double newSalary, boolean fail) {
+        log.info("updateEmployeeWithTransactionAwareCache - Tx-aware cache ile");
+        
+        Employee employee = employeeRepository.findById(id)
+            .orElseThrow(() -> new RuntimeException("Employee bulunamadı"));
+        
+        employee.setSalary(newSalary);
+        Employee saved = employeeRepository.save(employee);
+        
+        transactionAwareCache.put(id, saved);
+        log.info("Cache güncellemesi commit'e ertelendi: {}", id);
+        
+        if (fail) {
+            throw new RuntimeException("DB rollback olacak, bekleyen cache güncellemesi de atılır");
+        }
+        return saved;
+    }
+    
     /**
      * Cache'den okuma
      */
@@ -99,6 +129,10 @@ public class CacheService {
         return Optional.ofNullable(cache.get(id));
     }
     
+    public Optional<Employee> getEmployeeFromTransactionAwareCache(Long id) {
+        return Optional.ofNullable(transactionAwareCache.get(id, Employee.class));
+    }
+    
     // Event class
     public static class EmployeeUpdatedEvent {
         private final Long employeeId;
@@ -0,0 +1,148 @@
+package com.fsk.transaction.benchmarks;
+
+import com.fsk.transaction.performance.PerformanceApplication;
+import com.fsk.transaction.performance.service.CategoryDictionary;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * transaction-performance persistence katmanını web server olmadan ayağa kaldırır ve tabloları doldurur
+ *
+ * database = "h2"       : H2 in-memory, PostgreSQL mode (varsayılan, kurulum gerektirmez)
+ * database = "postgres" : docker-compose'daki PostgreSQL, ayrı "benchmark" şemasında
+ *                         (BENCHMARK_POSTGRES_URL ile değiştirilebilir)
+ *
+ * Tablolar her seed'de boşaltılır; uygulamanın verisi "benchmark" şeması sayesinde etkilenmez.
+ */
+public final class BenchmarkDatabase {
+    
+    private static final String H2_URL =
+        "jdbc:h2:mem:benchmark;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+    private static final String POSTGRES_URL =
+        "jdbc:postgresql://localhost:2345/transaction_db?reWriteBatchedInserts=true&currentSchema=benchmark";
+    
+    private static final int SEED_CHUNK_SIZE = 10_000;
+    
+    private BenchmarkDatabase() {
+    }
+    
+    public static boolean isPostgres(String database) {
+        return "postgres".equals(database);
+    }
+    
+    public static ConfigurableApplicationContext start(String database, String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+            "--spring.main.web-application-type=none",
+            "--spring.main.banner-mode=off",
+            "--spring.output.ansi.enabled=never",
+            "--spring.jpa.show-sql=false",
+            "--spring.jpa.hibernate.ddl-auto=update",
+            // Statement inspector her SQL'de shape normalizasyonu yapar, ölçülen süreye girmesin
+            "--performance.sql-tracking.enabled=false",
+            "--logging.level.root=WARN",
+            "--logging.level.com.fsk=WARN",
+            "--logging.level.org.hibernate.SQL=WARN",
+            "--logging.level.org.springframework.transaction=WARN"));
+        
+        if (isPostgres(database)) {
+            String url = System.getenv().getOrDefault("BENCHMARK_POSTGRES_URL", POSTGRES_URL);
+            if (url.equals(POSTGRES_URL)) {
+                createSchema(url, "benchmark");
+            }
+            args.addAll(List.of(
+                "--spring.datasource.url=" + url,
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=postgres",
+                "--spring.datasource.driver-class-name=org.postgresql.Driver",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect"));
+        } else if ("h2".equals(database)) {
+            args.addAll(List.of(
+                "--spring.datasource.url=" + H2_URL,
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"));
+        } else {
+            throw new IllegalArgumentException("Bilinmeyen database: " + database + " (h2 veya postgres)");
+        }
+        
+        return new SpringApplicationBuilder(PerformanceApplication.class)
+            .run(Stream.concat(args.stream(), Stream.of(extraArgs)).toArray(String[]::new));
+    }
+    
+    /**
+     * rows kadar product ve categories kadar category ekler (düz JDBC batch, Hibernate'e uğramadan)
+     * Sequence, Hibernate'in pooled optimizer'ı seed id'leriyle çakışmayacak şekilde ileri alınır.
+     */
+    public static void seed(ConfigurableApplicationContext context, int rows, int categories) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        truncate(context);
+        
+        jdbcTemplate.batchUpdate("INSERT INTO categories (id, name) VALUES (?, ?)", new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setLong(1, i + 1);
+                ps.setString(2, "Category " + (i + 1));
+            }
+            
+            @Override
+            public int getBatchSize() {
+                return categories;
+            }
+        });
+        
+        for (int start = 0; start < rows; start += SEED_CHUNK_SIZE) {
+            int chunkStart = start;
+            int chunkSize = Math.min(SEED_CHUNK_SIZE, rows - start);
+            jdbcTemplate.batchUpdate(
+                "INSERT INTO products_performance (id, name, price, stock, category_id) VALUES (?, ?, ?, ?, ?)",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        long id = chunkStart + i + 1L;
+                        ps.setLong(1, id);
+                        ps.setString(2, "Product " + id);
+                        ps.setDouble(3, 100.0 + id % 1000);
+                        ps.setInt(4, 100);
+                        ps.setLong(5, id % categories + 1);
+                    }
+                    
+                    @Override
+                    public int getBatchSize() {
+                        return chunkSize;
+                    }
+                });
+        }
+        
+        jdbcTemplate.execute("ALTER SEQUENCE products_performance_seq RESTART WITH " + (rows + 100L));
+        
+        // Category'ler JDBC ile eklendiği için sözlük elle yenilenir
+        context.getBean(CategoryDictionary.class).reload();
+    }
+    
+    public static void truncate(ConfigurableApplicationContext context) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.execute("TRUNCATE TABLE products_performance");
+        jdbcTemplate.execute("DELETE FROM categories");
+    }
+    
+    private static void createSchema(String url, String schema) {
+        try (Connection connection = DriverManager.getConnection(url, "postgres", "postgres");
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE SCHEMA IF NOT EXISTS " + schema);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Benchmark şeması oluşturulamadı: " + url, e);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.fsk.transaction.benchmarks;
+
+import com.fsk.transaction.benchmarks.queryplan.IndexMigrations;
+import com.fsk.transaction.benchmarks.queryplan.QueryPlanSeeder;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hot lookup sorguları: index migration'ları (V2__index_*.sql) olmadan ve uygulandıktan sonra - sadece PostgreSQL
+ *
+ * Tablolar "benchmark_indexes" şemasında QueryPlanSeeder dağılımıyla doldurulur
+ * (aggregate başına 10 event, saga başına 4 step, outbox'ta %1 PENDING, 1000 farklı ürün adı).
+ * Her operasyon rastgele bir anahtarla sorguyu çalıştırır ve sonucu okur.
+ *
+ * mvn -pl transaction-benchmarks -am compile exec:exec -Djmh.args="LookupIndex -p rows=1000000"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class LookupIndexBenchmark {
+    
+    private static final String POSTGRES_URL = "jdbc:postgresql://localhost:2345/transaction_db";
+    private static final String SCHEMA = "benchmark_indexes";
+    
+    @Param({"false", "true"})
+    public boolean indexed;
+    
+    @Param({"100000", "1000000"})
+    public int rows;
+    
+    private Connection connection;
+    private PreparedStatement eventsByAggregate;
+    private PreparedStatement pendingOutbox;
+    private PreparedStatement stepsBySaga;
+    private PreparedStatement sumQuantity;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        String url = System.getenv().getOrDefault("BENCHMARK_POSTGRES_URL", POSTGRES_URL);
+        connection = DriverManager.getConnection(url, "postgres", "postgres");
+        QueryPlanSeeder.seed(connection, SCHEMA, rows, false);
+        if (indexed) {
+            IndexMigrations.apply(connection);
+            QueryPlanSeeder.analyze(connection);
+        }
+        
+        eventsByAggregate = connection.prepareStatement(
+            "SELECT id, aggregate_id, event_data, event_type, occurred_at, version FROM event_store "
+                + "WHERE aggregate_id = ? ORDER BY version");
+        pendingOutbox = connection.prepareStatement(
+            "SELECT id, aggregate_id, aggregate_type, created_at, event_type, payload, processed_at, status FROM outbox_messages "
+                + "WHERE status = ? ORDER BY created_at");
+        stepsBySaga = connection.prepareStatement(
+            "SELECT id, compensation_data, executed_at, saga_id, status, step_name FROM saga_steps WHERE saga_id = ?");
+        sumQuantity = connection.prepareStatement("SELECT sum(quantity) FROM inventory WHERE product_name = ?");
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (connection) {
+            connection.createStatement().execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        }
+    }
+    
+    @Benchmark
+    public void findByAggregateIdOrderByVersionAsc(Blackhole blackhole) throws SQLException {
+        eventsByAggregate.setString(1, "AGG-" + ThreadLocalRandom.current().nextInt(rows / 10));
+        consume(eventsByAggregate, blackhole);
+    }
+    
+    @Benchmark
+    public void findByStatusOrderByCreatedAtAsc(Blackhole blackhole) throws SQLException {
+        pendingOutbox.setString(1, "PENDING");
+        consume(pendingOutbox, blackhole);
+    }
+    
+    @Benchmark
+    public void findBySagaId(Blackhole blackhole) throws SQLException {
+        stepsBySaga.setString(1, "SAGA-" + ThreadLocalRandom.current().nextInt(rows / 4));
+        consume(stepsBySaga, blackhole);
+    }
+    
+    @Benchmark
+    public void sumQuantityByProductName(Blackhole blackhole) throws SQLException {
+        sumQuantity.setString(1, "Product " + ThreadLocalRandom.current().nextInt(1000));
+        consume(sumQuantity, blackhole);
+    }
+    
+    private static void consume(PreparedStatement statement, Blackhole blackhole) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                blackhole.consume(resultSet.getObject(1));
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.fsk.transaction.benchmarks;
+
+import com.fsk.transaction.caching.cache.OffHeapProductStore;
+import com.fsk.transaction.caching.cache.TieredProductCache;
+import com.fsk.transaction.caching.entity.Product;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * products cache: sadece on-heap Caffeine ile on-heap + off-heap (TieredProductCache) karşılaştırması
+ *
+ * - heap: tüm product'lar Caffeine'de
+ * - tiered: on-heap katman entry sayısının %1'i, geri kalanı OffHeapProductStore'da
+ *
+ * Cache doldurulduktan sonra full GC sonrası kullanılan heap, her iterasyonda da GC sayısı ve toplam GC süresi
+ * (GarbageCollectorMXBean) yazdırılır; ops/s ve gc.alloc.rate.norm JMH çıktısındadır.
+ * Okumaların %80'i on-heap katmana sığan sıcak id'lere gider.
+ *
+ * mvn -pl transaction-benchmarks -am compile exec:exec -Djmh.args="ProductCacheTier -p entries=5000000 -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g", "-XX:MaxDirectMemorySize=2g", "-XX:+UseG1GC"})
+@Threads(4)
+public class ProductCacheTierBenchmark {
+    
+    private static final int SLOT_SIZE = 128;
+    private static final int WAYS = 8;
+    // Ölçüm boyunca hiçbir entry expire olmasın
+    private static final Duration TTL = Duration.ofHours(1);
+    
+    @Param({"heap", "tiered"})
+    public String tier;
+    
+    @Param({"1000000", "5000000"})
+    public int entries;
+    
+    private Cache cache;
+    private OffHeapProductStore offHeap;
+    private long hotEntries;
+    private long gcCount;
+    private long gcTimeMillis;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        hotEntries = "tiered".equals(tier) ? entries / 100 : entries;
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+            .maximumSize(hotEntries)
+            // Doldurma sırasında eviction (ve off-heap'e indirme) çağıran thread'de, deterministik
+            .executor(Runnable::run);
+        if ("tiered".equals(tier)) {
+            // Slot'ların %25'i boş kalsın, bucket çakışmaları eviction'a dönüşmesin
+            offHeap = new OffHeapProductStore((long) (entries * 1.25) * SLOT_SIZE, SLOT_SIZE, WAYS);
+            cache = new TieredProductCache("products", TieredProductCache.buildNativeCache(builder, TTL, offHeap), offHeap);
+        } else {
+            cache = new CaffeineCache("products", builder.expireAfterWrite(TTL).build(), false);
+        }
+        
+        // Sıcak id'ler (1..hotEntries) en son yazılır, böylece on-heap katmanda kalırlar
+        for (long id = entries; id >= 1; id--) {
+            cache.put(id, product(id));
+        }
+        
+        System.gc();
+        System.gc();
+        long usedHeap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        System.out.printf("%n[%s, %d entries] kullanılan heap: %d MB, off-heap: %s%n", tier, entries,
+            usedHeap / (1024 * 1024), offHeap != null ? offHeap.getStats() : "-");
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        cache.clear();
+        if (offHeap != null) {
+            offHeap.close();
+        }
+    }
+    
+    @Setup(Level.Iteration)
+    public void recordGc() {
+        gcCount = totalGcCount();
+        gcTimeMillis = totalGcTimeMillis();
+    }
+    
+    @TearDown(Level.Iteration)
+    public void printGc() {
+        System.out.printf("%n[%s, %d entries] GC: %d collection, %d ms%n", tier, entries,
+            totalGcCount() - gcCount, totalGcTimeMillis() - gcTimeMillis);
+    }
+    
+    @Benchmark
+    public Object read() {
+        return cache.get(randomId());
+    }
+    
+    @Benchmark
+    public void update() {
+        long id = randomId();
+        cache.put(id, product(id));
+    }
+    
+    private long randomId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return random.nextInt(100) < 80 ? random.nextLong(1, hotEntries + 1) : random.nextLong(1, entries + 1L);
+    }
+    
+    private static Product product(long id) {
+        return new Product(id, "Product-" + id, 10.0 + id % 1000, (int) (id % 500));
+    }
+    
+    private static long totalGcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+    }
+    
+    private static long totalGcTimeMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+    }
+}
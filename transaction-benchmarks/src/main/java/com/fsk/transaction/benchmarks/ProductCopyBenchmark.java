@@ -0,0 +1,64 @@
+package com.fsk.transaction.benchmarks;
+
+import com.fsk.transaction.performance.service.PerformanceService;
+import com.fsk.transaction.performance.service.PerformanceService.BulkLoadResult;
+import com.fsk.transaction.performance.service.PerformanceService.CopyFormat;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * bulkLoadWithCopy (COPY ... FROM STDIN) - sadece PostgreSQL
+ * ProductWriteBenchmark ile aynı satır sayılarında karşılaştırmak için
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ProductCopyBenchmark {
+    
+    @Param({"postgres"})
+    public String database;
+    
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+    
+    private ConfigurableApplicationContext context;
+    private PerformanceService performanceService;
+    private byte[] csv;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (!BenchmarkDatabase.isPostgres(database)) {
+            throw new IllegalStateException("COPY sadece PostgreSQL'de çalışır: -p database=postgres");
+        }
+        context = BenchmarkDatabase.start(database);
+        performanceService = context.getBean(PerformanceService.class);
+        
+        StringBuilder builder = new StringBuilder(rows * 32);
+        for (int i = 0; i < rows; i++) {
+            builder.append("Product ").append(i).append(',').append(100.0 + i).append(",100,\n");
+        }
+        csv = builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+    
+    @Setup(Level.Iteration)
+    public void emptyTables() {
+        BenchmarkDatabase.truncate(context);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public BulkLoadResult bulkLoadWithCopy() {
+        return performanceService.bulkLoadWithCopy(new ByteArrayInputStream(csv), CopyFormat.CSV, false);
+    }
+}
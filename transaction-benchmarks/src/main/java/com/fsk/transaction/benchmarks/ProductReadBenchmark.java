@@ -0,0 +1,98 @@
+package com.fsk.transaction.benchmarks;
+
+import com.fsk.transaction.performance.dto.ProductView;
+import com.fsk.transaction.performance.entity.Product;
+import com.fsk.transaction.performance.service.PerformanceService;
+import com.fsk.transaction.performance.service.PerformanceService.FetchStrategy;
+import com.fsk.transaction.performance.service.PerformanceService.ProductPage;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Okuma stratejileri: N+1 vs fetch join vs entity graph vs batch fetch vs subselect vs DTO projection
+ * vs join'siz projection + Category sözlüğü
+ *
+ * Her operasyon tablonun rastgele bir yerinden pageSize'lık bir keyset sayfası okur (kendi read-only transaction'ında).
+ * Satır başına allocation için: -prof gc (gc.alloc.rate.norm)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ProductReadBenchmark {
+    
+    @Param({"h2"})
+    public String database;
+    
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+    
+    @Param({"500"})
+    public int pageSize;
+    
+    @Param({"100"})
+    public int categories;
+    
+    @Param({"25"})
+    public int batchSize;
+    
+    private ConfigurableApplicationContext context;
+    private PerformanceService performanceService;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDatabase.start(database);
+        BenchmarkDatabase.seed(context, rows, categories);
+        performanceService = context.getBean(PerformanceService.class);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public ProductPage<Product> nPlusOne() {
+        return performanceService.getProducts(FetchStrategy.LAZY, randomToken(), pageSize, batchSize);
+    }
+    
+    @Benchmark
+    public ProductPage<Product> fetchJoin() {
+        return performanceService.getProducts(FetchStrategy.JOIN_FETCH, randomToken(), pageSize, batchSize);
+    }
+    
+    @Benchmark
+    public ProductPage<Product> entityGraph() {
+        return performanceService.getProducts(FetchStrategy.ENTITY_GRAPH, randomToken(), pageSize, batchSize);
+    }
+    
+    @Benchmark
+    public ProductPage<Product> batchFetch() {
+        return performanceService.getProducts(FetchStrategy.BATCH_FETCH, randomToken(), pageSize, batchSize);
+    }
+    
+    @Benchmark
+    public ProductPage<Product> subselect() {
+        return performanceService.getProducts(FetchStrategy.SUBSELECT, randomToken(), pageSize, batchSize);
+    }
+    
+    @Benchmark
+    public ProductPage<ProductView> dtoProjection() {
+        return performanceService.getProductViews(randomToken(), pageSize);
+    }
+    
+    @Benchmark
+    public ProductPage<ProductView> dtoDictionary() {
+        return performanceService.getProductViewsWithDictionary(randomToken(), pageSize);
+    }
+    
+    private String randomToken() {
+        long afterId = ThreadLocalRandom.current().nextLong(Math.max(1, rows - pageSize));
+        return ProductPage.encodeToken(afterId);
+    }
+}
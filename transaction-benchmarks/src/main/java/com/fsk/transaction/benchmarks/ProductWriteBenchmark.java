@@ -0,0 +1,59 @@
+package com.fsk.transaction.benchmarks;
+
+import com.fsk.transaction.performance.service.PerformanceService;
+import com.fsk.transaction.performance.service.PerformanceService.BatchInsertResult;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * batchInsertOptimized varyantları
+ *
+ * jdbcBatchSize = 1  : JDBC batching kapalı (her satır ayrı round trip)
+ * jdbcBatchSize = 50 : uygulamadaki ayar (hibernate.jdbc.batch_size)
+ *
+ * Her iterasyon boş tabloya rows kadar kayıt yazar; süre tek atışlık (SingleShotTime) ölçülür.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ProductWriteBenchmark {
+    
+    @Param({"h2"})
+    public String database;
+    
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+    
+    @Param({"1", "50"})
+    public int jdbcBatchSize;
+    
+    private ConfigurableApplicationContext context;
+    private PerformanceService performanceService;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDatabase.start(database,
+            "--spring.jpa.properties.hibernate.jdbc.batch_size=" + jdbcBatchSize);
+        performanceService = context.getBean(PerformanceService.class);
+    }
+    
+    @Setup(Level.Iteration)
+    public void emptyTables() {
+        BenchmarkDatabase.truncate(context);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public BatchInsertResult batchInsertOptimized() {
+        return performanceService.batchInsertOptimized(rows);
+    }
+}
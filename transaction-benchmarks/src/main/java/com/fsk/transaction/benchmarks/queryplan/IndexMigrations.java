@@ -0,0 +1,50 @@
+package com.fsk.transaction.benchmarks.queryplan;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Modüllerin Flyway index migration'larını (V2__index_*.sql) bağlantının search_path'indeki şemaya uygular
+ *
+ * Dosyalar kopyalanmak yerine modüllerden okunur, böylece ölçülen index'ler uygulamanınkilerle aynı kalır:
+ * pom.xml modüllerin db/migration/V2__index_*.sql dosyalarını classpath'e ekler, çalışma dizini önemli değildir.
+ */
+public final class IndexMigrations {
+    
+    private static final List<String> RESOURCES = List.of(
+        "db/migration/V2__index_event_store_aggregate_id_version.sql",
+        "db/migration/V2__index_saga_steps_saga_id.sql",
+        "db/migration/V2__index_outbox_messages_pending.sql",
+        "db/migration/V2__index_inventory_product_name.sql");
+    
+    private IndexMigrations() {
+    }
+    
+    /**
+     * CREATE INDEX CONCURRENTLY transaction içinde çalışamadığı için bağlantı autocommit olmalıdır
+     */
+    public static void apply(Connection connection) throws SQLException {
+        for (String resource : RESOURCES) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(read(resource));
+            }
+        }
+    }
+    
+    private static String read(String resource) {
+        try (InputStream input = IndexMigrations.class.getClassLoader().getResourceAsStream(resource)) {
+            if (input == null) {
+                throw new IllegalStateException("Migration classpath'te yok: " + resource);
+            }
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Migration okunamadı: " + resource, e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.fsk.transaction.benchmarks.queryplan;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) çıktısının karşılaştırmada kullanılan özeti
+ *
+ * totalCost planner tahminidir, veri ve istatistik aynı kaldıkça run'lar arasında sabittir;
+ * executionTime ve buffer sayıları bilgi amaçlıdır (cache durumuna göre değişir).
+ */
+public record PlanSummary(double totalCost,
+                          double executionTimeMs,
+                          long sharedHitBlocks,
+                          long sharedReadBlocks,
+                          List<String> seqScannedRelations) {
+    
+    public static PlanSummary from(JsonNode explainOutput) {
+        JsonNode root = explainOutput.get(0);
+        JsonNode plan = root.get("Plan");
+        List<String> seqScans = new ArrayList<>();
+        collectSeqScans(plan, seqScans);
+        return new PlanSummary(
+            plan.path("Total Cost").asDouble(),
+            root.path("Execution Time").asDouble(),
+            plan.path("Shared Hit Blocks").asLong(),
+            plan.path("Shared Read Blocks").asLong(),
+            seqScans);
+    }
+    
+    private static void collectSeqScans(JsonNode node, List<String> seqScans) {
+        if ("Seq Scan".equals(node.path("Node Type").asText())) {
+            seqScans.add(node.path("Relation Name").asText());
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectSeqScans(child, seqScans);
+        }
+    }
+}
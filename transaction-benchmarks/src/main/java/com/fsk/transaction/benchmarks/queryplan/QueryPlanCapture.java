@@ -0,0 +1,233 @@
+package com.fsk.transaction.benchmarks.queryplan;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Repository sorgularının planlarını yakalar ve önceki run ile karşılaştırır
+ *
+ * 1. QueryPlanSeeder ile "query_plans" şeması doldurulur (public şemadaki veri etkilenmez)
+ * 2. Her sorgu şekli için EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) çalıştırılır
+ * 3. Plan <output>/<sorgu>.json olarak yazılır (her run'da üzerine yazılır) ve <baseline>/<sorgu>.json ile karşılaştırılır
+ * 4. Baseline sadece --accept-baseline ile değişir: o run'ın planları yeni baseline olur
+ *
+ * İşaretlenenler:
+ * - SEQ_SCAN : seçici bir sorgu (WHERE ile birkaç satır okuyan) tabloyu baştan sona tarıyor
+ * - COST_JUMP: planner'ın total cost tahmini baseline'a göre --cost-threshold katından fazla artmış
+ *
+ * Parametreler: --rows=100000 --output=query-plans --baseline=<output>/baseline --cost-threshold=1.5
+ *   --fail-on-regression --accept-baseline
+ *   --with-index-migrations: public şemayı kopyalamak yerine boş tablolara modüllerin index migration'ları uygulanır
+ * EXPLAIN ANALYZE UPDATE'i gerçekten çalıştırır, bu yüzden her sorgu geri alınan bir transaction içinde çalışır.
+ * Bağlantı: QUERY_PLAN_POSTGRES_URL (varsayılan docker-compose'daki PostgreSQL)
+ */
+public class QueryPlanCapture {
+    
+    private static final String POSTGRES_URL = "jdbc:postgresql://localhost:2345/transaction_db";
+    
+    // categories 100 satırdır (tek sayfa), join'lerde seq scan planner'ın doğru seçimidir
+    private static final Set<String> SMALL_TABLES = Set.of("categories");
+    
+    private static final int PAGE_SIZE = 100;
+    private static final int REPRICE_CHUNK_SIZE = 1000;
+    
+    public static void main(String[] args) throws SQLException, IOException {
+        Map<String, String> options = parseOptions(args);
+        int rows = Integer.parseInt(options.getOrDefault("rows", "100000"));
+        Path output = Path.of(options.getOrDefault("output", "query-plans"));
+        double costThreshold = Double.parseDouble(options.getOrDefault("cost-threshold", "1.5"));
+        boolean failOnRegression = Boolean.parseBoolean(options.getOrDefault("fail-on-regression", "false"));
+        boolean withIndexMigrations = Boolean.parseBoolean(options.getOrDefault("with-index-migrations", "false"));
+        Path baseline = Path.of(options.getOrDefault("baseline", output.resolve("baseline").toString()));
+        boolean acceptBaseline = Boolean.parseBoolean(options.getOrDefault("accept-baseline", "false"));
+        
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        Files.createDirectories(output);
+        List<String> regressions = new ArrayList<>();
+        List<String> withoutBaseline = new ArrayList<>();
+        
+        String url = System.getenv().getOrDefault("QUERY_PLAN_POSTGRES_URL", POSTGRES_URL);
+        try (Connection connection = DriverManager.getConnection(url, "postgres", "postgres")) {
+            System.out.printf("%d satır ile %s şeması dolduruluyor...%n", rows, QueryPlanSeeder.SCHEMA);
+            QueryPlanSeeder.seed(connection, QueryPlanSeeder.SCHEMA, rows, !withIndexMigrations);
+            if (withIndexMigrations) {
+                IndexMigrations.apply(connection);
+                QueryPlanSeeder.analyze(connection);
+            }
+            
+            System.out.printf(Locale.ROOT, "%n%-40s %12s %12s %10s %10s %10s  %s%n",
+                "query", "cost", "base cost", "time(ms)", "hit", "read", "flags");
+            for (QueryShape shape : shapes(rows)) {
+                JsonNode plan = explain(connection, shape.sql(), objectMapper);
+                PlanSummary current = PlanSummary.from(plan);
+                
+                objectMapper.writeValue(output.resolve(shape.name() + ".json").toFile(), plan);
+                Path baselineFile = baseline.resolve(shape.name() + ".json");
+                PlanSummary previous = Files.exists(baselineFile)
+                    ? PlanSummary.from(objectMapper.readTree(baselineFile.toFile())) : null;
+                if (previous == null) {
+                    withoutBaseline.add(shape.name());
+                }
+                
+                List<String> flags = new ArrayList<>();
+                List<String> seqScans = current.seqScannedRelations().stream()
+                    .filter(relation -> !SMALL_TABLES.contains(relation))
+                    .toList();
+                if (!shape.seqScanExpected() && !seqScans.isEmpty()) {
+                    flags.add("SEQ_SCAN" + seqScans);
+                }
+                if (previous != null && previous.totalCost() > 0 && current.totalCost() / previous.totalCost() > costThreshold) {
+                    flags.add(String.format(Locale.ROOT, "COST_JUMP(x%.1f)", current.totalCost() / previous.totalCost()));
+                }
+                flags.forEach(flag -> regressions.add(shape.repositoryMethod() + ": " + flag));
+                
+                System.out.printf(Locale.ROOT, "%-40s %12.2f %12s %10.3f %10d %10d  %s%n",
+                    shape.name(), current.totalCost(),
+                    previous == null ? "-" : String.format(Locale.ROOT, "%.2f", previous.totalCost()),
+                    current.executionTimeMs(), current.sharedHitBlocks(), current.sharedReadBlocks(),
+                    flags.isEmpty() ? "OK" : String.join(" ", flags));
+                
+                if (acceptBaseline) {
+                    Files.createDirectories(baseline);
+                    objectMapper.writeValue(baselineFile.toFile(), plan);
+                }
+            }
+        }
+        
+        System.out.printf("%nPlanlar: %s%n", output.toAbsolutePath());
+        if (acceptBaseline) {
+            System.out.printf("Baseline güncellendi: %s%n", baseline.toAbsolutePath());
+        } else if (!withoutBaseline.isEmpty()) {
+            System.out.printf("Baseline'ı olmayan sorgular (COST_JUMP kontrol edilmedi, kabul için --accept-baseline): %s%n",
+                withoutBaseline);
+        }
+        if (!regressions.isEmpty()) {
+            System.out.println("İşaretlenen sorgular:");
+            regressions.forEach(regression -> System.out.println("  - " + regression));
+            if (failOnRegression) {
+                System.exit(1);
+            }
+        }
+    }
+    
+    /**
+     * Parametre değerleri seed dağılımının ortasından seçilir, böylece her sorgu tipik sayıda satır döner
+     */
+    static List<QueryShape> shapes(int rows) {
+        long middle = rows / 2;
+        return List.of(
+            new QueryShape("product-keyset-page", "ProductRepository.findByIdGreaterThanOrderByIdAsc",
+                """
+                SELECT p.id, p.category_id, p.name, p.price, p.stock
+                FROM products_performance p WHERE p.id > %d ORDER BY p.id FETCH FIRST %d ROWS ONLY
+                """.formatted(middle, PAGE_SIZE), false),
+            new QueryShape("product-page-with-category", "ProductRepository.findPageWithCategory / findWithCategoryGraph...",
+                """
+                SELECT p.id, p.category_id, c.id, c.name, p.name, p.price, p.stock
+                FROM products_performance p LEFT JOIN categories c ON c.id = p.category_id
+                WHERE p.id > %d ORDER BY p.id FETCH FIRST %d ROWS ONLY
+                """.formatted(middle, PAGE_SIZE), false),
+            // Hibernate 6 PostgreSQL'de batch'i tek array parametresiyle (= ANY) yükler; batchSize=25
+            new QueryShape("category-batch-fetch", "Session.byMultipleIds(Category.class) (FetchStrategy.BATCH_FETCH)",
+                """
+                SELECT c.id, c.name FROM categories c WHERE c.id = ANY ('{%s}')
+                """.formatted(LongStream.rangeClosed(1, 25).mapToObj(Long::toString).collect(Collectors.joining(","))),
+                false),
+            new QueryShape("category-subselect-fetch", "CategoryRepository.findByProductIdRange (FetchStrategy.SUBSELECT)",
+                """
+                SELECT c.id, c.name FROM categories c
+                WHERE c.id IN (SELECT p.category_id FROM products_performance p WHERE p.id > %d AND p.id <= %d)
+                """.formatted(middle, middle + PAGE_SIZE), false),
+            new QueryShape("product-view-page", "ProductRepository.findViewPage",
+                """
+                SELECT p.id, p.name, p.price, c.name
+                FROM products_performance p LEFT JOIN categories c ON c.id = p.category_id
+                WHERE p.id > %d ORDER BY p.id FETCH FIRST %d ROWS ONLY
+                """.formatted(middle, PAGE_SIZE), false),
+            new QueryShape("product-row-page", "ProductRepository.findRowPage",
+                """
+                SELECT p.id, p.name, p.price, p.category_id
+                FROM products_performance p WHERE p.id > %d ORDER BY p.id FETCH FIRST %d ROWS ONLY
+                """.formatted(middle, PAGE_SIZE), false),
+            new QueryShape("product-reprice-chunk-upper-bound", "ProductRepository.findRepriceChunkUpperBound",
+                """
+                SELECT max(id) FROM (
+                    SELECT id FROM products_performance
+                    WHERE category_id = 50 AND id > %d ORDER BY id LIMIT %d
+                ) chunk
+                """.formatted(middle, REPRICE_CHUNK_SIZE), false),
+            new QueryShape("product-reprice-update-range", "ProductRepository.updatePriceInRange",
+                """
+                UPDATE products_performance p SET price = p.price * 1.1
+                WHERE p.category_id = 50 AND p.id > %d AND p.id <= %d
+                """.formatted(middle, middle + REPRICE_CHUNK_SIZE * 100L), false),
+            new QueryShape("product-find-all-with-category", "ProductRepository.findAllWithCategory",
+                """
+                SELECT p.id, p.category_id, c.id, c.name, p.name, p.price, p.stock
+                FROM products_performance p JOIN categories c ON c.id = p.category_id
+                """, true),
+            new QueryShape("event-store-find-by-aggregate-id", "EventStoreRepository.findByAggregateIdOrderByVersionAsc",
+                """
+                SELECT e.id, e.aggregate_id, e.event_data, e.event_type, e.occurred_at, e.version
+                FROM event_store e WHERE e.aggregate_id = 'AGG-%d' ORDER BY e.version
+                """.formatted(rows / 20), false),
+            new QueryShape("outbox-find-by-status", "OutboxMessageRepository.findByStatusOrderByCreatedAtAsc",
+                """
+                SELECT o.id, o.aggregate_id, o.aggregate_type, o.created_at, o.event_type, o.payload, o.processed_at, o.status
+                FROM outbox_messages o WHERE o.status = 'PENDING' ORDER BY o.created_at
+                """, false),
+            new QueryShape("saga-step-find-by-saga-id", "SagaStepRepository.findBySagaId",
+                """
+                SELECT s.id, s.compensation_data, s.executed_at, s.saga_id, s.status, s.step_name
+                FROM saga_steps s WHERE s.saga_id = 'SAGA-%d'
+                """.formatted(rows / 8), false),
+            new QueryShape("inventory-sum-quantity-by-product-name", "InventoryRepository.sumQuantityByProductName",
+                """
+                SELECT sum(i.quantity) FROM inventory i WHERE i.product_name = 'Product 500'
+                """, false));
+    }
+    
+    private static JsonNode explain(Connection connection, String sql, ObjectMapper objectMapper) throws SQLException, IOException {
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) " + sql)) {
+            resultSet.next();
+            return objectMapper.readTree(resultSet.getString(1));
+        } finally {
+            connection.rollback();
+            connection.setAutoCommit(true);
+        }
+    }
+    
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String option = arg.startsWith("--") ? arg.substring(2) : arg;
+            int separator = option.indexOf('=');
+            if (separator < 0) {
+                options.put(option, "true");
+            } else {
+                options.put(option.substring(0, separator), option.substring(separator + 1));
+            }
+        }
+        return options;
+    }
+}
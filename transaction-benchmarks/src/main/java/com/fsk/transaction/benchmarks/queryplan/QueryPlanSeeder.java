@@ -0,0 +1,133 @@
+package com.fsk.transaction.benchmarks.queryplan;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Ayrı bir şemada modül tablolarının kopyalarını oluşturur ve generate_series ile doldurur
+ *
+ * copyPublicTables = true: public şemada tablo varsa (ddl-auto veya migration ile oluşmuşsa) LIKE ... INCLUDING ALL ile
+ * kolonlar ve index'ler birebir kopyalanır; böylece planlar uygulamanın gerçek index'lerini yansıtır.
+ * Aksi halde (veya tablo yoksa) Hibernate'in ürettiği DDL'e denk fallback DDL kullanılır (sadece primary key).
+ */
+public final class QueryPlanSeeder {
+    
+    public static final String SCHEMA = "query_plans";
+    
+    private record SeedTable(String name, String fallbackDdl, String seedSql) {
+    }
+    
+    private static final int CATEGORIES = 100;
+    
+    private static final List<SeedTable> TABLES = List.of(
+        new SeedTable("categories",
+            "CREATE TABLE categories (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, name VARCHAR(255) NOT NULL)",
+            "INSERT INTO categories (id, name) SELECT i, 'Category ' || i FROM generate_series(1, " + CATEGORIES + ") i"),
+        new SeedTable("products_performance",
+            """
+            CREATE TABLE products_performance (
+                id BIGINT PRIMARY KEY, name VARCHAR(255) NOT NULL, price FLOAT(53) NOT NULL, stock INTEGER,
+                category_id BIGINT REFERENCES categories (id))
+            """,
+            "INSERT INTO products_performance (id, name, price, stock, category_id) "
+                + "SELECT i, 'Product ' || i, 100 + i % 1000, 100, i % " + CATEGORIES + " + 1 FROM generate_series(1, ?) i"),
+        new SeedTable("event_store",
+            """
+            CREATE TABLE event_store (
+                id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, aggregate_id VARCHAR(255) NOT NULL,
+                event_type VARCHAR(255) NOT NULL, event_data TEXT NOT NULL, version BIGINT NOT NULL,
+                occurred_at TIMESTAMP(6) NOT NULL)
+            """,
+            // Aggregate başına 10 event
+            "INSERT INTO event_store (id, aggregate_id, event_type, event_data, version, occurred_at) "
+                + "SELECT i, 'AGG-' || (i / 10), 'OrderCreated', '{}', i % 10, now() - i * interval '1 second' "
+                + "FROM generate_series(1, ?) i"),
+        new SeedTable("outbox_messages",
+            """
+            CREATE TABLE outbox_messages (
+                id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, aggregate_type VARCHAR(255) NOT NULL,
+                aggregate_id VARCHAR(255) NOT NULL, event_type VARCHAR(255) NOT NULL, payload TEXT NOT NULL,
+                created_at TIMESTAMP(6) NOT NULL, processed_at TIMESTAMP(6), status VARCHAR(255))
+            """,
+            // Gerçekçi dağılım: mesajların %1'i PENDING, geri kalanı işlenmiş
+            "INSERT INTO outbox_messages (id, aggregate_type, aggregate_id, event_type, payload, created_at, processed_at, status) "
+                + "SELECT i, 'Order', 'ORD-' || i, 'OrderCreated', '{}', now() - i * interval '1 second', "
+                + "CASE WHEN i % 100 = 0 THEN NULL ELSE now() END, "
+                + "CASE WHEN i % 100 = 0 THEN 'PENDING' ELSE 'PROCESSED' END "
+                + "FROM generate_series(1, ?) i"),
+        new SeedTable("saga_steps",
+            """
+            CREATE TABLE saga_steps (
+                id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, saga_id VARCHAR(255) NOT NULL,
+                step_name VARCHAR(255) NOT NULL, status VARCHAR(255) NOT NULL, executed_at TIMESTAMP(6),
+                compensation_data VARCHAR(255))
+            """,
+            // Saga başına 4 step
+            "INSERT INTO saga_steps (id, saga_id, step_name, status, executed_at) "
+                + "SELECT i, 'SAGA-' || (i / 4), 'STEP-' || (i % 4), 'COMPLETED', now() FROM generate_series(1, ?) i"),
+        new SeedTable("inventory",
+            """
+            CREATE TABLE inventory (
+                id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, product_name VARCHAR(255) NOT NULL,
+                quantity INTEGER NOT NULL, price FLOAT(53))
+            """,
+            "INSERT INTO inventory (id, product_name, quantity, price) "
+                + "SELECT i, 'Product ' || (i % 1000), 10, 1.0 FROM generate_series(1, ?) i"));
+    
+    private QueryPlanSeeder() {
+    }
+    
+    /**
+     * Şemayı sıfırdan oluşturur; bağlantının search_path'i bu şemaya ayarlanır
+     */
+    public static void seed(Connection connection, String schema, int rows, boolean copyPublicTables) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + schema + " CASCADE");
+            statement.execute("CREATE SCHEMA " + schema);
+            statement.execute("SET search_path TO " + schema);
+        }
+        
+        for (SeedTable table : TABLES) {
+            try (Statement statement = connection.createStatement()) {
+                if (copyPublicTables && existsInPublic(connection, table.name())) {
+                    statement.execute("CREATE TABLE " + table.name() + " (LIKE public." + table.name() + " INCLUDING ALL)");
+                } else {
+                    if (copyPublicTables) {
+                        System.out.printf("public.%s bulunamadı, fallback DDL kullanılıyor (index'ler yok)%n", table.name());
+                    }
+                    statement.execute(table.fallbackDdl());
+                }
+            }
+            try (PreparedStatement insert = connection.prepareStatement(table.seedSql())) {
+                if (table.seedSql().contains("?")) {
+                    insert.setInt(1, rows);
+                }
+                insert.executeUpdate();
+            }
+        }
+        
+        analyze(connection);
+    }
+    
+    public static void analyze(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (SeedTable table : TABLES) {
+                statement.execute("ANALYZE " + table.name());
+            }
+        }
+    }
+    
+    private static boolean existsInPublic(Connection connection, String table) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT to_regclass(?) IS NOT NULL")) {
+            statement.setString(1, "public." + table);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getBoolean(1);
+            }
+        }
+    }
+}
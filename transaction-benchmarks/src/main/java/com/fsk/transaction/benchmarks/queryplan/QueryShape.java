@@ -0,0 +1,9 @@
+package com.fsk.transaction.benchmarks.queryplan;
+
+/**
+ * Repository metodunun Hibernate'in ürettiği SQL'e denk sorgusu
+ *
+ * seqScanExpected: tüm tabloyu okuyan sorgular (ör. findAllWithCategory) için seq scan regresyon sayılmaz
+ */
+public record QueryShape(String name, String repositoryMethod, String sql, boolean seqScanExpected) {
+}
@@ -0,0 +1,254 @@
+package com.fsk.transaction.caching.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * PostgreSQL LISTEN/NOTIFY üzerinden node'lar arası cache invalidation
+ *
+ * Gönderim: transaction içinde publish edilen key'ler toplanır ve beforeCommit'te aynı connection üzerinden
+ * tek (gerekirse payload sınırına göre birkaç) pg_notify ile gönderilir. NOTIFY transactional olduğu için
+ * PostgreSQL bildirimi sadece commit'te teslim eder, rollback'te atar. Transaction yoksa hemen gönderilir.
+ *
+ * Dinleme: her node pool dışında ayrı bir connection ile LISTEN yapar ve diğer node'lardan gelen key'leri
+ * lokal cache'ten evict eder (kendi bildirimleri atlanır, lokal cache TransactionAwareCache ile zaten güncel).
+ * Connection koparsa aradaki bildirimler kaçmış olabileceği için yeniden bağlanınca lokal cache'ler temizlenir.
+ *
+ * Payload: "<nodeId>|<cacheName>|<id>,<id>,..." (key'ler Long id)
+ */
+@Component
+@Slf4j
+public class CacheInvalidationBus implements SmartLifecycle {
+    
+    // PostgreSQL NOTIFY payload sınırı 8000 byte
+    private static final int MAX_PAYLOAD_LENGTH = 7900;
+    private static final int POLL_TIMEOUT_MILLIS = 1000;
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheManager cacheManager;
+    private final DataSourceProperties dataSourceProperties;
+    private final boolean enabled;
+    private final String channel;
+    private final Duration reconnectDelay;
+    private final String nodeId = UUID.randomUUID().toString();
+    
+    private final Counter notificationsSent;
+    private final Counter keysReceived;
+    private final Counter notificationsFailed;
+    
+    private volatile boolean running;
+    private Thread listenerThread;
+    
+    public CacheInvalidationBus(JdbcTemplate jdbcTemplate,
+                                CacheManager cacheManager,
+                                DataSourceProperties dataSourceProperties,
+                                MeterRegistry meterRegistry,
+                                @Value("${caching.invalidation.enabled:true}") boolean enabled,
+                                @Value("${caching.invalidation.channel:cache_invalidation}") String channel,
+                                @Value("${caching.invalidation.reconnect-delay:5s}") Duration reconnectDelay) {
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalArgumentException("Geçersiz NOTIFY channel adı: " + channel);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.cacheManager = cacheManager;
+        this.dataSourceProperties = dataSourceProperties;
+        this.enabled = enabled;
+        this.channel = channel;
+        this.reconnectDelay = reconnectDelay;
+        this.notificationsSent = meterRegistry.counter("cache.invalidation.sent", "channel", channel);
+        this.keysReceived = meterRegistry.counter("cache.invalidation.received.keys", "channel", channel);
+        this.notificationsFailed = meterRegistry.counter("cache.invalidation.received.failed", "channel", channel);
+    }
+    
+    /**
+     * Diğer node'lara key'in değiştiğini bildirir (aktif transaction varsa commit'te)
+     */
+    public void publish(String cacheName, Long key) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            send(Map.of(cacheName, Set.of(key)));
+            return;
+        }
+        pendingInvalidations().add(cacheName, key);
+    }
+    
+    private PendingInvalidations pendingInvalidations() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingInvalidations pending && pending.bus == this) {
+                return pending;
+            }
+        }
+        PendingInvalidations pending = new PendingInvalidations(this);
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+    
+    private void send(Map<String, Set<Long>> keysByCache) {
+        keysByCache.forEach((cacheName, keys) -> {
+            for (String payload : payloads(cacheName, keys)) {
+                jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, channel, payload);
+                notificationsSent.increment();
+            }
+        });
+    }
+    
+    private List<String> payloads(String cacheName, Set<Long> keys) {
+        String prefix = nodeId + "|" + cacheName + "|";
+        List<String> payloads = new ArrayList<>();
+        StringBuilder payload = new StringBuilder(prefix);
+        for (Long key : keys) {
+            String id = key.toString();
+            if (payload.length() > prefix.length() && payload.length() + 1 + id.length() > MAX_PAYLOAD_LENGTH) {
+                payloads.add(payload.toString());
+                payload = new StringBuilder(prefix);
+            }
+            if (payload.length() > prefix.length()) {
+                payload.append(',');
+            }
+            payload.append(id);
+        }
+        payloads.add(payload.toString());
+        return payloads;
+    }
+    
+    @Override
+    public void start() {
+        if (!enabled) {
+            log.info("Cache invalidation bus kapalı (caching.invalidation.enabled=false)");
+            return;
+        }
+        running = true;
+        listenerThread = Thread.ofPlatform().daemon().name("cache-invalidation-listener").start(this::listen);
+    }
+    
+    @Override
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    private void listen() {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                log.info("Cache invalidation dinleniyor: channel={}, node={}", channel, nodeId);
+                if (reconnecting) {
+                    log.warn("Bağlantı koptuğu sırada bildirim kaçmış olabilir, lokal cache'ler temizleniyor");
+                    cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+                }
+                
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            handleSafely(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                // RuntimeException: ör. reconnect sonrası clear; thread ölmesin, bağlantı yeniden kurulur
+                if (!running) {
+                    return;
+                }
+                reconnecting = true;
+                log.warn("Cache invalidation bağlantısı koptu, {} sonra tekrar denenecek: {}", reconnectDelay, e.getMessage());
+                try {
+                    Thread.sleep(reconnectDelay);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Bozuk bir payload (ör. kanala dışarıdan gönderilmiş bir NOTIFY) veya evict hatası sadece o bildirimi etkiler;
+     * dinleyen thread ölürse invalidation restart'a kadar sessizce durur
+     */
+    private void handleSafely(String payload) {
+        try {
+            handle(payload);
+        } catch (RuntimeException e) {
+            notificationsFailed.increment();
+            log.warn("Cache invalidation bildirimi işlenemedi: payload={}", payload, e);
+        }
+    }
+    
+    private void handle(String payload) {
+        String[] parts = payload.split("\\|", 3);
+        if (parts.length != 3 || parts[0].equals(nodeId)) {
+            return;
+        }
+        Cache cache = cacheManager.getCache(parts[1]);
+        if (cache == null) {
+            return;
+        }
+        for (String key : parts[2].split(",")) {
+            cache.evict(Long.valueOf(key));
+            keysReceived.increment();
+        }
+        log.debug("{} node'undan invalidation: cache={}, keys={}", parts[0], parts[1], parts[2]);
+    }
+    
+    /**
+     * Bir transaction'da değişen key'ler, beforeCommit'te NOTIFY olarak gönderilir
+     */
+    private static final class PendingInvalidations implements TransactionSynchronization {
+        
+        private final CacheInvalidationBus bus;
+        private final Map<String, Set<Long>> keysByCache = new LinkedHashMap<>();
+        
+        private PendingInvalidations(CacheInvalidationBus bus) {
+            this.bus = bus;
+        }
+        
+        void add(String cacheName, Long key) {
+            keysByCache.computeIfAbsent(cacheName, name -> new LinkedHashSet<>()).add(key);
+        }
+        
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            bus.send(keysByCache);
+        }
+    }
+}
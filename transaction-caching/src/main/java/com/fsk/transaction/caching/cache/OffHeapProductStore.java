@@ -0,0 +1,251 @@
+package com.fsk.transaction.caching.cache;
+
+import com.fsk.transaction.caching.entity.Product;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Product'ları heap dışında (java.lang.foreign) tutan sabit kapasiteli store
+ *
+ * Bellek tek bir MemorySegment'tir ve sabit boyutlu slot'lara bölünür; index de dahil hiçbir şey heap'te
+ * tutulmaz, bu yüzden milyonlarca entry GC'nin taradığı canlı nesne sayısını artırmaz.
+ *
+ * - Set-associative: id'nin hash'i bir bucket seçer, bucket'taki "ways" kadar slot taranır
+ * - Eviction: bucket doluysa erişim zamanı (global saat) en eski slot'un üzerine yazılır (bucket içinde LRU)
+ * - Slot: id (0 = boş) | erişim zamanı | expire zamanı | ProductCodec payload'u;
+ *   name slot'a sığmayan product'lar saklanmaz
+ * - TTL: put kalan TTL ile yapılır, süresi geçmiş slot get / take'te miss sayılır ve boşaltılır; böylece on-heap
+ *   cache'in expire-after-write staleness sınırı off-heap'te geçen süre için de geçerlidir
+ * - Eş zamanlılık: bucket'lar kilit şeritleri (striped lock) ile korunur
+ *
+ * Arena.ofShared ile ayrılan bellek close()'da (uygulama kapanırken) serbest bırakılır.
+ * Not: native segment'ler -XX:MaxDirectMemorySize sınırına dahildir.
+ */
+public class OffHeapProductStore implements AutoCloseable {
+    
+    private static final long ID = 0;
+    private static final long ACCESS_TIME = 8;
+    private static final long EXPIRES_AT = 16;
+    private static final long PAYLOAD = 24;
+    private static final long EMPTY = 0;
+    private static final int MAX_LOCK_STRIPES = 4096;
+    
+    private final Arena arena = Arena.ofShared();
+    private final MemorySegment memory;
+    private final int slotSize;
+    private final int ways;
+    private final long buckets;
+    private final Object[] locks;
+    private final AtomicLong clock = new AtomicLong();
+    // Expire zamanları için nanosaniye saat (TieredProductCache'te Caffeine ile aynı saat kullanılır)
+    private final LongSupplier ticker;
+    
+    private final AtomicLong size = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    
+    public OffHeapProductStore(long capacityBytes, int slotSize, int ways) {
+        this(capacityBytes, slotSize, ways, System::nanoTime);
+    }
+    
+    public OffHeapProductStore(long capacityBytes, int slotSize, int ways, LongSupplier ticker) {
+        if (slotSize % 8 != 0 || slotSize <= PAYLOAD + ProductCodec.HEADER_SIZE) {
+            throw new IllegalArgumentException("slot-size 8'in katı ve " + (PAYLOAD + ProductCodec.HEADER_SIZE) + " byte'tan büyük olmalı: " + slotSize);
+        }
+        this.slotSize = slotSize;
+        this.ways = ways;
+        this.ticker = ticker;
+        this.buckets = Math.max(1, capacityBytes / ((long) slotSize * ways));
+        this.memory = arena.allocate(buckets * ways * slotSize, 8);
+        this.locks = new Object[(int) Math.min(buckets, MAX_LOCK_STRIPES)];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+    
+    public Optional<Product> get(long id) {
+        long bucket = bucketOf(id);
+        synchronized (lockOf(bucket)) {
+            long slot = findLive(bucket, id);
+            if (slot < 0) {
+                misses.increment();
+                return Optional.empty();
+            }
+            hits.increment();
+            memory.set(ValueLayout.JAVA_LONG, slot + ACCESS_TIME, clock.incrementAndGet());
+            return Optional.of(ProductCodec.decode(id, payloadOf(slot)));
+        }
+    }
+    
+    /**
+     * Okur ve siler (on-heap'e çıkarılırken iki katmanda aynı anda durmasın diye); kalan TTL ile birlikte döner
+     */
+    public Optional<OffHeapEntry> take(long id) {
+        long bucket = bucketOf(id);
+        synchronized (lockOf(bucket)) {
+            long slot = findLive(bucket, id);
+            if (slot < 0) {
+                misses.increment();
+                return Optional.empty();
+            }
+            hits.increment();
+            long remainingNanos = memory.get(ValueLayout.JAVA_LONG, slot + EXPIRES_AT) - ticker.getAsLong();
+            Product product = ProductCodec.decode(id, payloadOf(slot));
+            free(slot);
+            return Optional.of(new OffHeapEntry(product, remainingNanos));
+        }
+    }
+    
+    /**
+     * Product'ı kalan TTL ile yazar; TTL bitmişse veya slot'a sığmıyorsa false (varsa eski değeri de silinir)
+     */
+    public boolean put(Product product, long ttlNanos) {
+        long id = product.getId();
+        byte[] name = ProductCodec.encodeName(product, slotSize - PAYLOAD);
+        if (name == null || ttlNanos <= 0) {
+            rejected.increment();
+            remove(id);
+            return false;
+        }
+        long bucket = bucketOf(id);
+        synchronized (lockOf(bucket)) {
+            long slot = find(bucket, id);
+            if (slot < 0) {
+                slot = victim(bucket);
+                if (memory.get(ValueLayout.JAVA_LONG, slot + ID) == EMPTY) {
+                    size.incrementAndGet();
+                } else {
+                    evictions.increment();
+                }
+                memory.set(ValueLayout.JAVA_LONG, slot + ID, id);
+            }
+            memory.set(ValueLayout.JAVA_LONG, slot + ACCESS_TIME, clock.incrementAndGet());
+            memory.set(ValueLayout.JAVA_LONG, slot + EXPIRES_AT, ticker.getAsLong() + ttlNanos);
+            ProductCodec.encode(payloadOf(slot), product, name);
+            return true;
+        }
+    }
+    
+    /**
+     * TieredProductCache'in Caffeine'e verdiği saat
+     */
+    public long now() {
+        return ticker.getAsLong();
+    }
+    
+    public boolean remove(long id) {
+        long bucket = bucketOf(id);
+        synchronized (lockOf(bucket)) {
+            long slot = find(bucket, id);
+            if (slot < 0) {
+                return false;
+            }
+            free(slot);
+            return true;
+        }
+    }
+    
+    public void clear() {
+        for (long bucket = 0; bucket < buckets; bucket++) {
+            synchronized (lockOf(bucket)) {
+                for (int way = 0; way < ways; way++) {
+                    long slot = slotOf(bucket, way);
+                    if (memory.get(ValueLayout.JAVA_LONG, slot + ID) != EMPTY) {
+                        free(slot);
+                    }
+                }
+            }
+        }
+    }
+    
+    public OffHeapStats getStats() {
+        return new OffHeapStats(size.get(), buckets * ways, memory.byteSize(), hits.sum(), misses.sum(),
+            evictions.sum(), expirations.sum(), rejected.sum());
+    }
+    
+    @Override
+    public void close() {
+        arena.close();
+    }
+    
+    private long find(long bucket, long id) {
+        for (int way = 0; way < ways; way++) {
+            long slot = slotOf(bucket, way);
+            if (memory.get(ValueLayout.JAVA_LONG, slot + ID) == id) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Süresi geçmiş slot bulunursa boşaltılır ve miss sayılır
+     */
+    private long findLive(long bucket, long id) {
+        long slot = find(bucket, id);
+        if (slot >= 0 && memory.get(ValueLayout.JAVA_LONG, slot + EXPIRES_AT) - ticker.getAsLong() <= 0) {
+            free(slot);
+            expirations.increment();
+            return -1;
+        }
+        return slot;
+    }
+    
+    private void free(long slot) {
+        memory.set(ValueLayout.JAVA_LONG, slot + ID, EMPTY);
+        size.decrementAndGet();
+    }
+    
+    /**
+     * Boş slot, yoksa bucket'ta en uzun süredir erişilmeyen slot
+     */
+    private long victim(long bucket) {
+        long victim = slotOf(bucket, 0);
+        long oldest = Long.MAX_VALUE;
+        for (int way = 0; way < ways; way++) {
+            long slot = slotOf(bucket, way);
+            if (memory.get(ValueLayout.JAVA_LONG, slot + ID) == EMPTY) {
+                return slot;
+            }
+            long accessTime = memory.get(ValueLayout.JAVA_LONG, slot + ACCESS_TIME);
+            if (accessTime < oldest) {
+                oldest = accessTime;
+                victim = slot;
+            }
+        }
+        return victim;
+    }
+    
+    private long bucketOf(long id) {
+        // Ardışık id'ler bucket'lara yayılsın diye Fibonacci hashing
+        return Math.floorMod(id * 0x9E3779B97F4A7C15L >>> 17, buckets);
+    }
+    
+    private long slotOf(long bucket, int way) {
+        return (bucket * ways + way) * slotSize;
+    }
+    
+    private Object lockOf(long bucket) {
+        return locks[(int) (bucket % locks.length)];
+    }
+    
+    private MemorySegment payloadOf(long slot) {
+        return memory.asSlice(slot + PAYLOAD, slotSize - PAYLOAD);
+    }
+    
+    public record OffHeapEntry(Product product, long remainingNanos) {
+    }
+    
+    public record OffHeapStats(long size, long capacity, long reservedBytes, long hits, long misses, long evictions,
+                               long expirations, long rejected) {
+    }
+}
@@ -0,0 +1,57 @@
+package com.fsk.transaction.caching.cache;
+
+import com.fsk.transaction.caching.entity.Product;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Product'ın off-heap slot içindeki kompakt binary formatı (id slot başlığında tutulur)
+ *
+ *  0  double price
+ *  8  int    stock
+ * 12  byte   flags (bit 0: stock null)
+ * 13  short  name uzunluğu (UTF-8 byte)
+ * 15  byte[] name
+ */
+public final class ProductCodec {
+    
+    public static final int HEADER_SIZE = 15;
+    
+    private static final long PRICE = 0;
+    private static final long STOCK = 8;
+    private static final long FLAGS = 12;
+    private static final long NAME_LENGTH = 13;
+    private static final long NAME = HEADER_SIZE;
+    private static final byte STOCK_NULL = 1;
+    
+    private ProductCodec() {
+    }
+    
+    /**
+     * UTF-8 name; payloadSize'a sığmıyorsa null
+     */
+    public static byte[] encodeName(Product product, long payloadSize) {
+        byte[] name = product.getName().getBytes(StandardCharsets.UTF_8);
+        return HEADER_SIZE + name.length <= payloadSize && name.length <= Short.MAX_VALUE ? name : null;
+    }
+    
+    public static void encode(MemorySegment payload, Product product, byte[] name) {
+        payload.set(ValueLayout.JAVA_DOUBLE_UNALIGNED, PRICE, product.getPrice());
+        payload.set(ValueLayout.JAVA_INT_UNALIGNED, STOCK, product.getStock() != null ? product.getStock() : 0);
+        payload.set(ValueLayout.JAVA_BYTE, FLAGS, product.getStock() == null ? STOCK_NULL : 0);
+        payload.set(ValueLayout.JAVA_SHORT_UNALIGNED, NAME_LENGTH, (short) name.length);
+        MemorySegment.copy(name, 0, payload, ValueLayout.JAVA_BYTE, NAME, name.length);
+    }
+    
+    public static Product decode(long id, MemorySegment payload) {
+        double price = payload.get(ValueLayout.JAVA_DOUBLE_UNALIGNED, PRICE);
+        boolean stockNull = (payload.get(ValueLayout.JAVA_BYTE, FLAGS) & STOCK_NULL) != 0;
+        int stock = payload.get(ValueLayout.JAVA_INT_UNALIGNED, STOCK);
+        int nameLength = payload.get(ValueLayout.JAVA_SHORT_UNALIGNED, NAME_LENGTH);
+        byte[] name = new byte[nameLength];
+        MemorySegment.copy(payload, ValueLayout.JAVA_BYTE, NAME, name, 0, nameLength);
+        return new Product(id, new String(name, StandardCharsets.UTF_8), price, stockNull ? null : stock);
+    }
+}
@@ -0,0 +1,94 @@
+package com.fsk.transaction.caching.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight: aynı key için eş zamanlı cache miss'lerde tek bir yükleme çalışır
+ *
+ * İlk gelen (leader) loader'ı çalıştırır; yükleme sürerken gelenler leader'ın sonucunu bekler (coalesced).
+ * Leader hata alırsa bekleyenler aynı hatayı alır. Bekleme timeout'u aşarsa caller kendi yüklemesini yapar,
+ * böylece takılan bir yükleme tüm istekleri kilitlemez.
+ *
+ * Metrikler (tag cache=<name>): cache.load.leader, cache.load.coalesced, cache.load.coalesced.timeout
+ */
+@Slf4j
+public class SingleFlight<K, V> {
+    
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Duration timeout;
+    private final Counter leaderLoads;
+    private final Counter coalescedLoads;
+    private final Counter timeouts;
+    
+    public SingleFlight(String cacheName, Duration timeout, MeterRegistry meterRegistry) {
+        this.timeout = timeout;
+        this.leaderLoads = meterRegistry.counter("cache.load.leader", "cache", cacheName);
+        this.coalescedLoads = meterRegistry.counter("cache.load.coalesced", "cache", cacheName);
+        this.timeouts = meterRegistry.counter("cache.load.coalesced.timeout", "cache", cacheName);
+    }
+    
+    public V load(K key, Supplier<V> loader) {
+        CompletableFuture<V> leader = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, leader);
+        if (existing != null) {
+            return await(key, existing, loader);
+        }
+        
+        leaderLoads.increment();
+        try {
+            V value = loader.get();
+            leader.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            leader.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, leader);
+        }
+    }
+    
+    private V await(K key, CompletableFuture<V> existing, Supplier<V> loader) {
+        coalescedLoads.increment();
+        try {
+            return existing.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            log.warn("Single-flight bekleme timeout'u ({}), key {} ayrıca yükleniyor", timeout, key);
+            return loader.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Single-flight beklerken interrupt edildi: " + key, e);
+        }
+    }
+    
+    public long getLeaderLoads() {
+        return (long) leaderLoads.count();
+    }
+    
+    public long getCoalescedLoads() {
+        return (long) coalescedLoads.count();
+    }
+    
+    public long getTimeouts() {
+        return (long) timeouts.count();
+    }
+}
@@ -0,0 +1,199 @@
+package com.fsk.transaction.caching.cache;
+
+import com.fsk.transaction.caching.entity.Product;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * İki katmanlı products cache: on-heap Caffeine önde, OffHeapProductStore arkada
+ *
+ * - Katmanlar ayrıktır: on-heap'ten boyut nedeniyle çıkarılan (SIZE) entry kalan TTL'i ile off-heap'e iner,
+ *   off-heap'te bulunan entry on-heap'e yine kalan TTL'i ile çıkar ve off-heap'ten silinir. Böylece bir product
+ *   hangi katmanda olursa olsun ilk yazılışından en fazla expire-after-write kadar sonra expire olur.
+ * - Expire olan entry off-heap'e inmez (stale)
+ * - put / evict / clear her iki katmanı da günceller, böylece TransactionAwareCache, invalidation bus ve
+ *   write-behind için tek bir Cache gibi davranır
+ * - On-heap'e çıkarma (take + putIfAbsent) ile evict / clear aynı kilitlerle sıralanır: invalidation bus'tan gelen
+ *   bir evict, off-heap'ten alınmış ama henüz on-heap'e yazılmamış eski değeri geri getiremez
+ *
+ * Native cache buildNativeCache ile kurulmalıdır (değişken expiry + eviction listener).
+ * CaffeineCache'ten türediği için Caffeine istatistikleri ve actuator cache metrikleri on-heap katmanı gösterir.
+ */
+public class TieredProductCache extends CaffeineCache {
+    
+    private static final int LOCK_STRIPES = 256;
+    
+    private final OffHeapProductStore offHeap;
+    private final Policy.VarExpiration<Object, Object> expiration;
+    // clear tüm key'leri etkiler (write), çıkarma ve evict tek key'i (read + key şeridi)
+    private final ReadWriteLock clearLock = new ReentrantReadWriteLock();
+    private final Object[] keyLocks = new Object[LOCK_STRIPES];
+    
+    public TieredProductCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache,
+                              OffHeapProductStore offHeap) {
+        super(name, cache, false);
+        this.offHeap = offHeap;
+        this.expiration = cache.policy().expireVariably()
+            .orElseThrow(() -> new IllegalArgumentException("Native cache TieredProductCache.buildNativeCache ile kurulmalı"));
+        for (int i = 0; i < keyLocks.length; i++) {
+            keyLocks[i] = new Object();
+        }
+    }
+    
+    /**
+     * On-heap katman: her yazmada ttl'den başlayan expiry (expire-after-write), okuma süreyi değiştirmez;
+     * boyut nedeniyle çıkarılan entry kalan TTL'i ile off-heap'e iner. Saat off-heap store ile ortaktır.
+     */
+    public static com.github.benmanes.caffeine.cache.Cache<Object, Object> buildNativeCache(Caffeine<Object, Object> builder,
+                                                                                          Duration ttl,
+                                                                                          OffHeapProductStore offHeap) {
+        AtomicReference<com.github.benmanes.caffeine.cache.Cache<Object, Object>> self = new AtomicReference<>();
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> cache = builder
+            .ticker(offHeap::now)
+            .expireAfter(new WriteExpiry(ttl.toNanos()))
+            .evictionListener((Object key, Object value, RemovalCause cause) -> {
+                if (cause != RemovalCause.SIZE || !(value instanceof Product product)) {
+                    return;
+                }
+                // Listener eviction'ın atomik işlemi içinde çalışır, entry hâlâ map'te: kalan süre okunabilir.
+                // Okunamazsa indirilmez (cache'ten düşmüş sayılır)
+                OptionalLong remaining = self.get().policy().expireVariably()
+                    .map(variable -> variable.getExpiresAfter(key, TimeUnit.NANOSECONDS))
+                    .orElse(OptionalLong.empty());
+                if (remaining.isPresent()) {
+                    offHeap.put(product, remaining.getAsLong());
+                }
+            })
+            .build();
+        self.set(cache);
+        return cache;
+    }
+    
+    public OffHeapProductStore getOffHeap() {
+        return offHeap;
+    }
+    
+    @Override
+    protected Object lookup(Object key) {
+        Object value = super.lookup(key);
+        if (value != null || !(key instanceof Long id)) {
+            return value;
+        }
+        clearLock.readLock().lock();
+        try {
+            synchronized (keyLock(id)) {
+                OffHeapProductStore.OffHeapEntry entry = offHeap.take(id).orElse(null);
+                if (entry == null) {
+                    return null;
+                }
+                // Tam TTL değil kalan TTL; bu arada on-heap'e daha yeni bir değer yazıldıysa o kazanır
+                Object existing = expiration.putIfAbsent(id, entry.product(), entry.remainingNanos(), TimeUnit.NANOSECONDS);
+                return existing != null ? existing : entry.product();
+            }
+        } finally {
+            clearLock.readLock().unlock();
+        }
+    }
+    
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            @SuppressWarnings("unchecked")
+            T value = (T) wrapper.get();
+            return value;
+        }
+        return super.get(key, valueLoader);
+    }
+    
+    /**
+     * Kilit gerekmez: çıkarma putIfAbsent kullandığı için bu değerin üzerine yazmaz
+     */
+    @Override
+    public void put(Object key, Object value) {
+        super.put(key, value);
+        removeOffHeap(key);
+    }
+    
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = get(key);
+        return existing != null ? existing : super.putIfAbsent(key, value);
+    }
+    
+    @Override
+    public void evict(Object key) {
+        evictIfPresent(key);
+    }
+    
+    @Override
+    public boolean evictIfPresent(Object key) {
+        clearLock.readLock().lock();
+        try {
+            synchronized (keyLock(key)) {
+                boolean onHeap = super.evictIfPresent(key);
+                return removeOffHeap(key) || onHeap;
+            }
+        } finally {
+            clearLock.readLock().unlock();
+        }
+    }
+    
+    @Override
+    public void clear() {
+        invalidate();
+    }
+    
+    @Override
+    public boolean invalidate() {
+        clearLock.writeLock().lock();
+        try {
+            boolean onHeap = super.invalidate();
+            boolean offHeapNotEmpty = offHeap.getStats().size() > 0;
+            offHeap.clear();
+            return onHeap || offHeapNotEmpty;
+        } finally {
+            clearLock.writeLock().unlock();
+        }
+    }
+    
+    private boolean removeOffHeap(Object key) {
+        return key instanceof Long id && offHeap.remove(id);
+    }
+    
+    private Object keyLock(Object key) {
+        return keyLocks[Math.floorMod(key.hashCode(), LOCK_STRIPES)];
+    }
+    
+    /**
+     * Oluşturma ve güncellemede ttl, okumada kalan süre korunur (expireAfterWrite ile aynı)
+     */
+    private record WriteExpiry(long ttlNanos) implements Expiry<Object, Object> {
+        
+        @Override
+        public long expireAfterCreate(Object key, Object value, long currentTime) {
+            return ttlNanos;
+        }
+        
+        @Override
+        public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+            return ttlNanos;
+        }
+        
+        @Override
+        public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.fsk.transaction.caching.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Spring'in TransactionAwareCacheDecorator'ı üzerine read-your-writes ve yazma birleştirme
+ *
+ * Spring'in decorator'ı her put / evict / clear için ayrı bir afterCommit kaydeder; transaction içindeki get
+ * bekleyen yazmayı görmez. Burada yazmalar transaction'a bağlı tek bir buffer'da toplanır:
+ * - commit: buffer afterCommit'te hedef cache'e uygulanır
+ * - rollback: buffer atılır, cache hiç değişmemiş olur
+ * - aynı key'e birden fazla yazma birleştirilir (son yazma kazanır)
+ * - transaction içindeki get, o transaction'ın bekleyen yazmalarını görür (read-your-writes)
+ *
+ * Buffer bir TransactionSynchronization olarak tutulduğu için REQUIRES_NEW ile askıya alınan transaction'ın
+ * yazmaları iç transaction'a karışmaz. Aynı hedef cache'i saran tüm decorator'lar aynı buffer'ı paylaşır.
+ * Transaction yoksa tüm çağrılar, putIfAbsent / evictIfPresent / invalidate ise her zaman ("hemen" semantiği)
+ * Spring'in decorator'ındaki gibi doğrudan hedef cache'e gider.
+ */
+public class TransactionAwareCache extends TransactionAwareCacheDecorator {
+    
+    public TransactionAwareCache(Cache target) {
+        super(target);
+    }
+    
+    @Override
+    public ValueWrapper get(Object key) {
+        PendingWrites pending = currentPendingWrites(false);
+        if (pending != null && pending.hides(key)) {
+            return pending.get(key);
+        }
+        return super.get(key);
+    }
+    
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        if (currentPendingWrites(false) == null) {
+            return super.get(key, type);
+        }
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+    
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        PendingWrites pending = currentPendingWrites(false);
+        if (pending == null) {
+            return super.get(key, valueLoader);
+        }
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        // Transaction içinde yüklenen değer commit edilmemiş veriyi yansıtabilir, bu yüzden o da ertelenir
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+    
+    @Override
+    public void put(Object key, Object value) {
+        PendingWrites pending = currentPendingWrites(true);
+        if (pending == null) {
+            super.put(key, value);
+        } else {
+            pending.put(key, value);
+        }
+    }
+    
+    @Override
+    public void evict(Object key) {
+        PendingWrites pending = currentPendingWrites(true);
+        if (pending == null) {
+            super.evict(key);
+        } else {
+            pending.evict(key);
+        }
+    }
+    
+    @Override
+    public void clear() {
+        PendingWrites pending = currentPendingWrites(true);
+        if (pending == null) {
+            super.clear();
+        } else {
+            pending.clear();
+        }
+    }
+    
+    /**
+     * Aktif transaction'daki bu cache'e ait buffer; create = true ise yoksa oluşturulup kaydedilir
+     * Transaction synchronization aktif değilse null
+     */
+    private PendingWrites currentPendingWrites(boolean create) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingWrites pending && pending.target == getTargetCache()) {
+                return pending;
+            }
+        }
+        if (!create) {
+            return null;
+        }
+        PendingWrites pending = new PendingWrites(getTargetCache());
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+    
+    /**
+     * Bir transaction'ın bir cache'e bekleyen yazmaları
+     */
+    private static final class PendingWrites implements TransactionSynchronization {
+        
+        private static final Object EVICTED = new Object();
+        
+        private final Cache target;
+        private final Map<Object, Object> writes = new LinkedHashMap<>();
+        private boolean cleared;
+        
+        private PendingWrites(Cache target) {
+            this.target = target;
+        }
+        
+        /**
+         * Key için bu transaction'da bir yazma var mı (veya clear ile tüm cache gizlendi mi)
+         */
+        boolean hides(Object key) {
+            return cleared || writes.containsKey(key);
+        }
+        
+        ValueWrapper get(Object key) {
+            Object value = writes.get(key);
+            if (value == null && !writes.containsKey(key) || value == EVICTED) {
+                return null;
+            }
+            return new SimpleValueWrapper(value);
+        }
+        
+        void put(Object key, Object value) {
+            writes.put(key, value);
+        }
+        
+        void evict(Object key) {
+            writes.put(key, EVICTED);
+        }
+        
+        void clear() {
+            writes.clear();
+            cleared = true;
+        }
+        
+        @Override
+        public void afterCommit() {
+            if (cleared) {
+                target.clear();
+            }
+            writes.forEach((key, value) -> {
+                if (value == EVICTED) {
+                    target.evict(key);
+                } else {
+                    target.put(key, value);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.fsk.transaction.caching.config;
+
+import com.fsk.transaction.caching.cache.OffHeapProductStore;
+import com.fsk.transaction.caching.cache.SingleFlight;
+import com.fsk.transaction.caching.cache.TieredProductCache;
+import com.fsk.transaction.caching.entity.Product;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Tek, sınırlı ve thread-safe cache: Caffeine (W-TinyLFU admission)
+ *
+ * - maximumSize: sınır aşılınca W-TinyLFU sık erişilen entry'leri tutar, tek seferlik erişimleri eler
+ * - expireAfterWrite: TTL, başka yoldan değişen veri en fazla bu kadar stale kalır
+ * - recordStats: hit/miss/eviction sayıları (/api/caching/cache/stats ve /actuator/metrics/cache.*)
+ *
+ * @Cacheable/@CacheEvict ve CacheService'in elle yaptığı cache-aside aynı CacheManager'ı kullanır.
+ *
+ * caching.off-heap.enabled=true ise products cache'in arkasında off-heap ikinci katman vardır (TieredProductCache):
+ * on-heap'ten boyut nedeniyle çıkarılan product'lar OffHeapProductStore'a iner.
+ */
+@Configuration
+public class CacheConfig {
+    
+    public static final String PRODUCTS = "products";
+    public static final String USERS = "users";
+    
+    @Bean
+    public CaffeineCacheManager cacheManager(@Value("${caching.cache.maximum-size:10000}") long maximumSize,
+                                             @Value("${caching.cache.expire-after-write:10m}") Duration expireAfterWrite,
+                                             ObjectProvider<OffHeapProductStore> offHeapProductStore) {
+        OffHeapProductStore offHeap = offHeapProductStore.getIfAvailable();
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                return offHeap != null && PRODUCTS.equals(name)
+                    ? new TieredProductCache(name, cache, offHeap)
+                    : super.adaptCaffeineCache(name, cache);
+            }
+        };
+        cacheManager.setAllowNullValues(false);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(expireAfterWrite)
+            .recordStats());
+        
+        if (offHeap == null) {
+            cacheManager.setCacheNames(List.of(PRODUCTS, USERS));
+            return cacheManager;
+        }
+        cacheManager.setCacheNames(List.of(USERS));
+        // Sadece boyut nedeniyle çıkarılanlar kalan TTL'leri ile aşağı iner; expire olan (stale) ve elle silinenler inmez
+        cacheManager.registerCustomCache(PRODUCTS, TieredProductCache.buildNativeCache(
+            Caffeine.newBuilder().maximumSize(maximumSize).recordStats(), expireAfterWrite, offHeap));
+        return cacheManager;
+    }
+    
+    /**
+     * products cache'in off-heap ikinci katmanı; bellek uygulama kapanırken close() ile serbest bırakılır
+     */
+    @Bean
+    @ConditionalOnProperty(name = "caching.off-heap.enabled", havingValue = "true")
+    public OffHeapProductStore offHeapProductStore(@Value("${caching.off-heap.capacity:256MB}") DataSize capacity,
+                                                   @Value("${caching.off-heap.slot-size:128}") int slotSize,
+                                                   @Value("${caching.off-heap.ways:8}") int ways) {
+        return new OffHeapProductStore(capacity.toBytes(), slotSize, ways);
+    }
+    
+    /**
+     * products cache miss'lerinde aynı id için tek veritabanı yüklemesi
+     */
+    @Bean
+    public SingleFlight<Long, Product> productSingleFlight(MeterRegistry meterRegistry,
+                                                           @Value("${caching.cache.load-timeout:5s}") Duration loadTimeout) {
+        return new SingleFlight<>(PRODUCTS, loadTimeout, meterRegistry);
+    }
+}
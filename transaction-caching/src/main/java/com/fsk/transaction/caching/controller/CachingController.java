@@ -2,10 +2,13 @@ package com.fsk.transaction.caching.controller;
 
 import com.fsk.transaction.caching.entity.Product;
 import com.fsk.transaction.caching.service.CacheService;
+import com.fsk.transaction.caching.service.CacheService.CacheStatsView;
+import com.fsk.transaction.caching.service.PriceWriteBehindBuffer.WriteBehindStats;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Optional;
 
 @RestController
@@ -41,6 +44,24 @@ public class CachingController {
         return ResponseEntity.ok(product);
     }
     
+    /**
+     * Write-Behind: fiyat cache'ten onaylanır, veritabanına toplu ve gecikmeli yazılır
+     */
+    @PutMapping("/write-behind/{id}")
+    public ResponseEntity<Product> updatePriceWriteBehind(
+            @PathVariable Long id,
+            @RequestParam Double newPrice) {
+        return ResponseEntity.ok(cacheService.updatePriceWriteBehind(id, newPrice));
+    }
+    
+    /**
+     * Write-behind kuyruğu (bekleyen, birleştirilen, yazılan, başarısız)
+     */
+    @GetMapping("/write-behind/stats")
+    public ResponseEntity<WriteBehindStats> getWriteBehindStats() {
+        return ResponseEntity.ok(cacheService.getWriteBehindStats());
+    }
+    
     /**
      * Cache-Aside Pattern
      */
@@ -50,6 +71,14 @@ public class CachingController {
         return ResponseEntity.ok(product);
     }
     
+    /**
+     * Multi-get: hit'ler cache'ten, miss'ler chunk başına tek sorguyla (ör. ?ids=1,2,3)
+     */
+    @GetMapping("/products")
+    public ResponseEntity<List<Product>> getProducts(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(cacheService.getProducts(ids));
+    }
+    
     /**
      * Cache invalidation
      */
@@ -58,6 +87,14 @@ public class CachingController {
         cacheService.evictProductFromCache(id);
         return ResponseEntity.ok("Cache invalidated: " + id);
     }
+    
+    /**
+     * Cache istatistikleri (hit/miss/eviction)
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<CacheStatsView> getCacheStats() {
+        return ResponseEntity.ok(cacheService.getProductCacheStats());
+    }
 }
 
 
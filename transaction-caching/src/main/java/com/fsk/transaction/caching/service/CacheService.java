@@ -1,20 +1,31 @@
 package com.fsk.transaction.caching.service;
 
+import com.fsk.transaction.caching.cache.CacheInvalidationBus;
+import com.fsk.transaction.caching.cache.OffHeapProductStore;
+import com.fsk.transaction.caching.cache.SingleFlight;
+import com.fsk.transaction.caching.cache.TieredProductCache;
+import com.fsk.transaction.caching.cache.TransactionAwareCache;
+import com.fsk.transaction.caching.config.CacheConfig;
 import com.fsk.transaction.caching.entity.Product;
 import com.fsk.transaction.caching.repository.ProductRepository;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
-import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.transaction.event.TransactionPhase;
-import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Transaction + Caching Konuları
@@ -30,11 +41,26 @@ import java.util.Optional;
 @Slf4j
 public class CacheService {
     
+    // Multi-get miss'lerinde tek sorgudaki IN listesi uzunluğu
+    private static final int IN_LIST_CHUNK_SIZE = 500;
+    
     private final ProductRepository productRepository;
-    private final ApplicationEventPublisher eventPublisher;
     
-    // In-memory cache (transaction-aware değil)
-    private final Map<Long, Product> cache = new HashMap<>();
+    // Sınırlı, thread-safe cache (CacheConfig - Caffeine)
+    // Transaction içinden yazmalar TransactionAwareCache üzerinden yapılır
+    private final CacheManager cacheManager;
+    
+    // Eş zamanlı miss'lerde aynı id için tek findById
+    private final SingleFlight<Long, Product> productSingleFlight;
+    
+    // Diğer instance'ların lokal cache'leri için LISTEN/NOTIFY
+    private final CacheInvalidationBus cacheInvalidationBus;
+    
+    // Write-behind fiyat güncellemeleri
+    private final PriceWriteBehindBuffer priceWriteBehindBuffer;
+    
+    // Expire olmaya yakın ve okunan product'ların arka planda yenilenmesi
+    private final ProductRefreshAhead productRefreshAhead;
     
     /**
      * PROBLEM: Cache transaction içinde güncellenirse
@@ -51,19 +77,22 @@ public class CacheService {
         Product saved = productRepository.save(product);
         
         // Cache güncelleniyor - Transaction içinde (YANLIŞ!)
-        cache.put(id, saved);
+        productCache().put(id, saved);
         log.info("Cache güncellendi: {}", id);
         
         throw new RuntimeException("DB rollback olacak ama cache güncellenmiş kalır!");
     }
     
     /**
-     * ÇÖZÜM: AFTER_COMMIT event kullan
-     * Cache sadece transaction commit olduktan sonra güncellenir
+     * ÇÖZÜM: Transaction-aware cache
+     * put transaction'a bağlı buffer'a yazılır, sadece commit olduktan sonra (afterCommit) cache'e uygulanır;
+     * rollback'te atılır. Her servis için ayrı AFTER_COMMIT event/listener gerekmez.
+     * Diğer instance'lar commit'te gelen NOTIFY ile eski değeri evict eder.
+     * Write-behind kuyruğunda bu product'ın daha eski bir fiyatı varsa commit'te yeni fiyat onun yerini alır.
      */
     @Transactional
     public Product updateProductWithCacheSolution(Long id, Double newPrice) {
-        log.info("updateProductWithCacheSolution - AFTER_COMMIT event ile");
+        log.info("updateProductWithCacheSolution - Transaction-aware cache ile");
         
         Product product = productRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Product bulunamadı"));
@@ -71,70 +100,165 @@ public class CacheService {
         product.setPrice(newPrice);
         Product saved = productRepository.save(product);
         
-        eventPublisher.publishEvent(new ProductUpdatedEvent(id, saved));
+        transactionAwareProductCache().put(id, saved);
+        cacheInvalidationBus.publish(CacheConfig.PRODUCTS, id);
+        priceWriteBehindBuffer.supersedeOnCommit(id, newPrice);
+        log.info("Cache güncellemesi commit'e ertelendi: {}", id);
         
         return saved;
     }
     
-    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
-    public void handleProductUpdated(ProductUpdatedEvent event) {
-        log.info("handleProductUpdated - AFTER_COMMIT - Cache güncelleniyor");
-        cache.put(event.getProductId(), event.getProduct());
-        log.info("Cache güncellendi: {}", event.getProductId());
-    }
-    
     /**
      * Cache-Aside Pattern
+     * (@Cacheable ile aynı cache'e ikinci kez yazmamak için cache-aside elle yapılır)
+     *
+     * Sık okunan bir product expire olduğunda eş zamanlı istekler aynı anda veritabanına gitmesin diye
+     * miss'ler single-flight ile birleştirilir: tek findById çalışır, diğerleri sonucunu bekler.
+     * Metod transaction açmaz: cache hit'ler ve bekleyen istekler connection tutmaz,
+     * findById repository'nin kendi read-only transaction'ında çalışır.
      */
-    @Cacheable(value = "products", key = "#id")
-    @Transactional(readOnly = true)
     public Product getProductWithCache(Long id) {
         log.info("getProductWithCache - Cache-Aside Pattern");
         
-        Optional<Product> cached = Optional.ofNullable(cache.get(id));
+        Optional<Product> cached = getProductFromCache(id);
         if (cached.isPresent()) {
             log.info("Cache hit: {}", id);
+            productRefreshAhead.onHit(id, cached.get());
             return cached.get();
         }
         
         log.info("Cache miss: {}", id);
-        Product product = productRepository.findById(id)
-            .orElseThrow(() -> new RuntimeException("Product bulunamadı"));
+        return productSingleFlight.load(id, () -> {
+            // Önceki leader bu arada yüklemiş olabilir
+            Optional<Product> loaded = getProductFromCache(id);
+            if (loaded.isPresent()) {
+                return loaded.get();
+            }
+            // Henüz flush edilmemiş write-behind fiyatı veritabanındakinden yenidir (okumadan önce ve sonra bakılır)
+            Optional<Double> pendingBefore = priceWriteBehindBuffer.pendingPrice(id);
+            Product product = productRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Product bulunamadı"));
+            priceWriteBehindBuffer.pendingPrice(id).or(() -> pendingBefore).ifPresent(product::setPrice);
+            // Okuma sürerken commit edilen bir güncelleme cache'e yazdıysa eski okumayla üzerine yazılmaz
+            Cache.ValueWrapper existing = productCache().putIfAbsent(id, product);
+            return existing != null ? (Product) existing.get() : product;
+        });
+    }
+    
+    /**
+     * Multi-get: liste sayfaları için N ayrı cache-aside yerine tek geçiş
+     *
+     * Hit'ler cache'ten döner, miss'lerin hepsi IN_LIST_CHUNK_SIZE'lık parçalar halinde chunk başına tek findAllById
+     * ile yüklenir (N round trip yerine ~1). Sonuç istenen sırada ve tekrarsızdır; bulunamayan id'ler atlanır.
+     * Miss'ler single-flight'a girmez; bu arada başka bir istek aynı product'ı yüklemiş veya güncellemişse
+     * cache'teki değer korunur (putIfAbsent).
+     */
+    public List<Product> getProducts(Collection<Long> ids) {
+        log.info("getProducts - Multi-get ({} id)", ids.size());
+        
+        Map<Long, Product> products = new HashMap<>();
+        List<Long> misses = new ArrayList<>();
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        for (Long id : requested) {
+            Optional<Product> cached = getProductFromCache(id);
+            if (cached.isPresent()) {
+                productRefreshAhead.onHit(id, cached.get());
+                products.put(id, cached.get());
+            } else {
+                misses.add(id);
+            }
+        }
         
-        cache.put(id, product);
-        return product;
+        Cache cache = productCache();
+        for (int from = 0; from < misses.size(); from += IN_LIST_CHUNK_SIZE) {
+            List<Long> chunk = misses.subList(from, Math.min(from + IN_LIST_CHUNK_SIZE, misses.size()));
+            Map<Long, Double> pendingBefore = new HashMap<>();
+            chunk.forEach(id -> priceWriteBehindBuffer.pendingPrice(id).ifPresent(price -> pendingBefore.put(id, price)));
+            for (Product product : productRepository.findAllById(chunk)) {
+                priceWriteBehindBuffer.pendingPrice(product.getId())
+                    .or(() -> Optional.ofNullable(pendingBefore.get(product.getId())))
+                    .ifPresent(product::setPrice);
+                Cache.ValueWrapper existing = cache.putIfAbsent(product.getId(), product);
+                products.put(product.getId(), existing != null ? (Product) existing.get() : product);
+            }
+        }
+        log.info("Multi-get: {} hit, {} miss", requested.size() - misses.size(), misses.size());
+        
+        return requested.stream().map(products::get).filter(Objects::nonNull).toList();
     }
     
     /**
-     * Cache invalidation
+     * Write-Behind: fiyat cache'te hemen güncellenir ve onaylanır, veritabanına sonradan toplu yazılır
+     * (PriceWriteBehindBuffer). Aynı product'a art arda gelen güncellemeler tek UPDATE'e iner.
+     *
+     * Trade-off: flush edilmeden crash olursa son güncellemeler kaybolur (max-unflushed-age / count ile sınırlı;
+     * kuyruk doluysa güncelleme senkron yazılır);
+     * diğer instance'lar yeni fiyatı ancak flush commit olunca görür.
+     */
+    public Product updatePriceWriteBehind(Long id, Double newPrice) {
+        log.info("updatePriceWriteBehind - Write-Behind");
+        
+        Product current = getProductWithCache(id);
+        // Cache'teki instance diğer thread'lerle paylaşıldığı için kopyası güncellenir
+        Product updated = new Product(current.getId(), current.getName(), newPrice, current.getStock());
+        // Önce kuyruk: kuyruk doluyken senkron yazma başarısız olursa cache'te kaydedilmemiş fiyat kalmaz
+        priceWriteBehindBuffer.enqueue(id, newPrice);
+        productCache().put(id, updated);
+        
+        return updated;
+    }
+    
+    public PriceWriteBehindBuffer.WriteBehindStats getWriteBehindStats() {
+        return priceWriteBehindBuffer.getStats();
+    }
+    
+    /**
+     * Cache invalidation (commit olduktan sonra)
      */
-    @CacheEvict(value = "products", key = "#id")
     @Transactional
     public void evictProductFromCache(Long id) {
         log.info("evictProductFromCache - Cache invalidation");
-        cache.remove(id);
+        transactionAwareProductCache().evict(id);
+        cacheInvalidationBus.publish(CacheConfig.PRODUCTS, id);
     }
     
     public Optional<Product> getProductFromCache(Long id) {
-        return Optional.ofNullable(cache.get(id));
+        return Optional.ofNullable(productCache().get(id, Product.class));
     }
     
-    public static class ProductUpdatedEvent {
-        private final Long productId;
-        private final Product product;
-        
-        public ProductUpdatedEvent(Long productId, Product product) {
-            this.productId = productId;
-            this.product = product;
-        }
-        
-        public Long getProductId() {
-            return productId;
-        }
-        
-        public Product getProduct() {
-            return product;
-        }
+    /**
+     * Caffeine istatistikleri: hit/miss oranı, boyut sınırı ve TTL nedeniyle yapılan eviction'lar
+     * (on-heap katman; off-heap katman açıksa onun istatistikleri offHeap alanında)
+     */
+    public CacheStatsView getProductCacheStats() {
+        Cache cache = productCache();
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = ((CaffeineCache) cache).getNativeCache();
+        CacheStats stats = nativeCache.stats();
+        OffHeapProductStore.OffHeapStats offHeap = cache instanceof TieredProductCache tiered
+            ? tiered.getOffHeap().getStats()
+            : null;
+        return new CacheStatsView(stats.hitCount(), stats.missCount(), stats.hitRate(), stats.evictionCount(),
+            nativeCache.estimatedSize(), productSingleFlight.getLeaderLoads(), productSingleFlight.getCoalescedLoads(),
+            productSingleFlight.getTimeouts(), offHeap);
+    }
+    
+    private Cache productCache() {
+        return cacheManager.getCache(CacheConfig.PRODUCTS);
+    }
+    
+    private Cache transactionAwareProductCache() {
+        return new TransactionAwareCache(productCache());
+    }
+    
+    public record CacheStatsView(long hitCount,
+                                 long missCount,
+                                 double hitRate,
+                                 long evictionCount,
+                                 long estimatedSize,
+                                 long loads,
+                                 long coalescedLoads,
+                                 long coalescingTimeouts,
+                                 OffHeapProductStore.OffHeapStats offHeap) {
     }
 }
 
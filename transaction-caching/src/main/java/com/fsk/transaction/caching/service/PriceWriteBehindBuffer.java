@@ -0,0 +1,305 @@
+package com.fsk.transaction.caching.service;
+
+import com.fsk.transaction.caching.cache.CacheInvalidationBus;
+import com.fsk.transaction.caching.config.CacheConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind: fiyat güncellemeleri cache'ten onaylanır, products_cache'e sonradan toplu yazılır
+ *
+ * - Aynı product'a flush öncesi gelen güncellemeler birleştirilir (son fiyat kazanır)
+ * - Flush: her max-unflushed-age'de bir (timer) veya bekleyen sayısı max-unflushed-count'a ulaşınca (size threshold)
+ * - Her flush batch-size'lık parçalar halinde ayrı transaction'larda JDBC batch UPDATE yapar
+ * - Durability sınırı: commit edilmemiş bir güncelleme en fazla ~max-unflushed-age bekler,
+ *   crash'te kaybolabilecek güncelleme sayısı max-unflushed-count ile sınırlıdır (bekleyen + yazılmakta olan)
+ * - Backpressure: sınır doluyken yeni bir product için enqueue flush'ı tetikler ve en fazla backpressure-timeout
+ *   bekler; yer açılmazsa (veritabanı yavaş / erişilemiyor) güncelleme senkron write-through yapılır, hata caller'a döner.
+ *   Böylece veritabanı dururken kuyruk sınırsız büyümez.
+ * - Başarısız batch tekrar kuyruğa alınır (bu arada gelmiş daha yeni fiyat varsa o korunur)
+ * - Aynı product'ın senkron güncellemesi commit olunca kuyruktaki eski fiyatın yerini alır (supersedeOnCommit)
+ * - Uygulama kapanırken kalan her şey flush edilir
+ */
+@Component
+@Slf4j
+public class PriceWriteBehindBuffer implements SmartLifecycle {
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final Duration maxUnflushedAge;
+    private final int maxUnflushedCount;
+    private final int batchSize;
+    private final Duration backpressureTimeout;
+    
+    private final ConcurrentMap<Long, Double> pending = new ConcurrentHashMap<>();
+    // Kuyruktan alınmış, transaction'ı henüz commit edilmemiş fiyatlar
+    private final ConcurrentMap<Long, Double> flushing = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    // Flush yer açtığında sınırda bekleyen enqueue'lar uyandırılır
+    private final Object capacity = new Object();
+    private final Counter coalescedUpdates;
+    private final Counter flushedUpdates;
+    private final Counter failedUpdates;
+    private final Counter writeThroughUpdates;
+    
+    private ScheduledExecutorService flusher;
+    private volatile boolean running;
+    
+    public PriceWriteBehindBuffer(JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  CacheInvalidationBus cacheInvalidationBus,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${caching.write-behind.max-unflushed-age:2s}") Duration maxUnflushedAge,
+                                  @Value("${caching.write-behind.max-unflushed-count:1000}") int maxUnflushedCount,
+                                  @Value("${caching.write-behind.batch-size:500}") int batchSize,
+                                  @Value("${caching.write-behind.backpressure-timeout:500ms}") Duration backpressureTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.maxUnflushedAge = maxUnflushedAge;
+        this.maxUnflushedCount = maxUnflushedCount;
+        this.batchSize = batchSize;
+        this.backpressureTimeout = backpressureTimeout;
+        this.coalescedUpdates = meterRegistry.counter("cache.write-behind.coalesced");
+        this.flushedUpdates = meterRegistry.counter("cache.write-behind.flushed");
+        this.failedUpdates = meterRegistry.counter("cache.write-behind.failed");
+        this.writeThroughUpdates = meterRegistry.counter("cache.write-behind.write-through");
+        meterRegistry.gaugeMapSize("cache.write-behind.pending", List.of(), pending);
+    }
+    
+    /**
+     * Sınır doluysa ve yer açılmazsa fiyatı senkron yazar; veritabanı hatası caller'a döner (güncelleme kabul edilmemiştir)
+     */
+    public void enqueue(Long productId, Double price) {
+        if (!admit(productId, price)) {
+            writeThrough(productId, price);
+            return;
+        }
+        if (unflushed() >= maxUnflushedCount) {
+            requestFlush();
+        }
+    }
+    
+    /**
+     * Kontrol ve ekleme aynı monitor altında, böylece eş zamanlı enqueue'lar sınırı birlikte aşamaz.
+     * Zaten bekleyen bir product'ın güncellemesi birleştirilir, kuyruğu büyütmez.
+     */
+    private boolean admit(Long productId, Double price) {
+        long deadline = System.nanoTime() + backpressureTimeout.toNanos();
+        synchronized (capacity) {
+            while (!pending.containsKey(productId) && unflushed() >= maxUnflushedCount) {
+                requestFlush();
+                long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remainingMillis <= 0) {
+                    return false;
+                }
+                try {
+                    capacity.wait(remainingMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            if (pending.put(productId, price) != null) {
+                coalescedUpdates.increment();
+            }
+            return true;
+        }
+    }
+    
+    private int unflushed() {
+        return pending.size() + flushing.size();
+    }
+    
+    private void requestFlush() {
+        if (flushRequested.compareAndSet(false, true)) {
+            flusher.execute(this::flushSafely);
+        }
+    }
+    
+    /**
+     * Kuyruk doluyken: flush lock'u altında, böylece yazılmakta olan eski bir fiyat bu yazmanın üzerine commit olamaz
+     */
+    private void writeThrough(Long productId, Double price) {
+        flushLock.lock();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update("UPDATE products_cache SET price = ? WHERE id = ?", price, productId);
+                cacheInvalidationBus.publish(CacheConfig.PRODUCTS, productId);
+            });
+            writeThroughUpdates.increment();
+            log.warn("Write-behind kuyruğu dolu ({}), product {} fiyatı senkron yazıldı", maxUnflushedCount, productId);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+    
+    /**
+     * Senkron (transaction içinde) yapılan fiyat güncellemesini çağıran transaction'a bağlar
+     *
+     * Kuyrukta veya yazılmakta olan daha eski bir fiyat varsa, flush'ı commit'ten sonra senkron güncellemenin
+     * üzerine yazabilir (satır kilidini bekleyip ardından commit olan flush dahil). Bu yüzden beforeCommit'te
+     * eski fiyat not edilir, commit'ten sonra yeni fiyat kuyruğa konur: bir sonraki flush yeni fiyatı yazar,
+     * o zamana kadar pendingPrice da yeni fiyatı döner. Bu arada daha yeni bir write-behind fiyatı geldiyse o korunur.
+     * Rollback'te bir şey değişmez; kuyrukta eski fiyat yoksa kuyruğa bir şey eklenmez.
+     */
+    public void supersedeOnCommit(Long productId, Double price) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            supersede(productId, pendingPrice(productId), price);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            
+            private Optional<Double> stale = Optional.empty();
+            
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                stale = pendingPrice(productId);
+            }
+            
+            @Override
+            public void afterCommit() {
+                supersede(productId, stale, price);
+            }
+        });
+    }
+    
+    private void supersede(Long productId, Optional<Double> stale, Double price) {
+        stale.ifPresent(stalePrice -> pending.compute(productId,
+            (id, current) -> current == null || current.equals(stalePrice) ? price : current));
+    }
+    
+    /**
+     * Flush edilmemiş fiyat (cache'ten düşmüş bir product veritabanından yüklenirken üzerine yazılır)
+     *
+     * Yükleyen taraf veritabanı okumasından hem önce hem sonra bakmalı: okuma sürerken bir flush commit olup
+     * fiyatı kuyruktan temizlemiş olabilir, okuma ise commit'ten önceki eski fiyatı görmüş olabilir.
+     * Sonraki bakış boşsa önceki bakıştaki fiyat kullanılır; ikisi de varsa sonraki daha yenidir.
+     */
+    public Optional<Double> pendingPrice(Long productId) {
+        Double price = pending.get(productId);
+        return Optional.ofNullable(price != null ? price : flushing.get(productId));
+    }
+    
+    public void flush() {
+        flushRequested.set(false);
+        flushLock.lock();
+        try {
+            List<Map.Entry<Long, Double>> drained = new ArrayList<>();
+            for (Map.Entry<Long, Double> entry : pending.entrySet()) {
+                Long productId = entry.getKey();
+                Double price = entry.getValue();
+                // Önce flushing'e: arada pendingPrice boş dönerse miss yüklemesi veritabanındaki eski fiyatı cache'ler
+                flushing.put(productId, price);
+                // Bu arada daha yeni fiyat geldiyse pending'de kalır, bir sonraki flush yazar
+                if (pending.remove(productId, price)) {
+                    drained.add(Map.entry(productId, price));
+                }
+            }
+            for (int from = 0; from < drained.size(); from += batchSize) {
+                writeBatch(drained.subList(from, Math.min(from + batchSize, drained.size())));
+            }
+        } finally {
+            flushing.clear();
+            flushLock.unlock();
+            synchronized (capacity) {
+                capacity.notifyAll();
+            }
+        }
+    }
+    
+    private void writeBatch(List<Map.Entry<Long, Double>> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate("UPDATE products_cache SET price = ? WHERE id = ?", batch, batch.size(),
+                    (ps, entry) -> {
+                        ps.setDouble(1, entry.getValue());
+                        ps.setLong(2, entry.getKey());
+                    });
+                // Diğer instance'lar commit'te eski değeri evict eder
+                batch.forEach(entry -> cacheInvalidationBus.publish(CacheConfig.PRODUCTS, entry.getKey()));
+            });
+            flushedUpdates.increment(batch.size());
+            log.debug("Write-behind flush: {} fiyat yazıldı", batch.size());
+        } catch (RuntimeException e) {
+            // Flush sırasında gelen daha yeni fiyatın üzerine yazma
+            batch.forEach(entry -> pending.putIfAbsent(entry.getKey(), entry.getValue()));
+            failedUpdates.increment(batch.size());
+            log.error("Write-behind flush başarısız, {} fiyat tekrar kuyrukta", batch.size(), e);
+        }
+    }
+    
+    public WriteBehindStats getStats() {
+        return new WriteBehindStats(pending.size(), (long) coalescedUpdates.count(), (long) flushedUpdates.count(),
+            (long) failedUpdates.count(), (long) writeThroughUpdates.count());
+    }
+    
+    @Override
+    public void start() {
+        flusher = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("price-write-behind").factory());
+        long periodMillis = maxUnflushedAge.toMillis();
+        flusher.scheduleWithFixedDelay(this::flushSafely, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+    
+    /**
+     * Web server'dan sonra durur (daha düşük phase), veritabanı bağlantıları kapanmadan önce son flush yapılır
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+    
+    @Override
+    public void stop() {
+        running = false;
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(maxUnflushedAge.toMillis() * 2, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Kapanış öncesi write-behind flush: {} bekleyen fiyat", pending.size());
+        flush();
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Write-behind flush hatası", e);
+        }
+    }
+    
+    public record WriteBehindStats(int pending, long coalesced, long flushed, long failed, long writeThrough) {
+    }
+}
@@ -0,0 +1,211 @@
+package com.fsk.transaction.caching.service;
+
+import com.fsk.transaction.caching.config.CacheConfig;
+import com.fsk.transaction.caching.entity.Product;
+import com.fsk.transaction.caching.repository.ProductRepository;
+import com.github.benmanes.caffeine.cache.Policy;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Cache warm-up: deploy sonrası boş cache'in veritabanına okuma patlaması yaşatmaması için
+ * en sık okunan top-N product uygulama "ready" olmadan önce yüklenir
+ *
+ * - Id listesi: önce caching.warm-up.product-ids (sabit), sonra erişim sıklığı snapshot'ı, toplam top-n kadar
+ * - Snapshot: Caffeine'in W-TinyLFU sıklık tahminine göre en sıcak id'ler (policy().eviction().hottest(n));
+ *   snapshot-interval'da bir ve kapanışta dosyaya yazılır, bir sonraki açılışta okunur
+ * - Yükleme: id'ler sıralanıp chunk-size'lık parçalara bölünür, her chunk tek findAllById (PK üzerinde IN-list)
+ *   ile parallelism kadar thread'de paralel yüklenir. Sıcak id'ler seyrek olduğu için keyset / BETWEEN aralığı
+ *   yerine IN-list: aralık sorgusu aradaki soğuk product'ları da okurdu.
+ * - ApplicationRunner olarak çalışır: Spring Boot readiness'ı (ReadinessState.ACCEPTING_TRAFFIC) runner'lar
+ *   bittikten sonra yayınlar, /actuator/health/readiness warm-up bitene kadar OUT_OF_SERVICE döner
+ * - timeout aşılır veya yükleme hata verirse uygulama yine ready olur (cache-aside miss yolu devam eder)
+ */
+@Component
+@Slf4j
+public class ProductCacheWarmer implements ApplicationRunner {
+    
+    private final ProductRepository productRepository;
+    private final CacheManager cacheManager;
+    private final boolean enabled;
+    private final List<Long> productIds;
+    private final Path snapshotFile;
+    private final Duration snapshotInterval;
+    private final int topN;
+    private final int chunkSize;
+    private final int parallelism;
+    private final Duration timeout;
+    
+    private ScheduledExecutorService snapshotter;
+    
+    public ProductCacheWarmer(ProductRepository productRepository,
+                              CacheManager cacheManager,
+                              @Value("${caching.warm-up.enabled:true}") boolean enabled,
+                              @Value("${caching.warm-up.product-ids:}") List<Long> productIds,
+                              @Value("${caching.warm-up.snapshot-file:cache-warmup/products.snapshot}") Path snapshotFile,
+                              @Value("${caching.warm-up.snapshot-interval:5m}") Duration snapshotInterval,
+                              @Value("${caching.warm-up.top-n:1000}") int topN,
+                              @Value("${caching.warm-up.chunk-size:200}") int chunkSize,
+                              @Value("${caching.warm-up.parallelism:4}") int parallelism,
+                              @Value("${caching.warm-up.timeout:30s}") Duration timeout) {
+        this.productRepository = productRepository;
+        this.cacheManager = cacheManager;
+        this.enabled = enabled;
+        this.productIds = productIds;
+        this.snapshotFile = snapshotFile;
+        this.snapshotInterval = snapshotInterval;
+        this.topN = topN;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        this.timeout = timeout;
+    }
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        warmUp();
+        snapshotter = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("cache-warm-up-snapshot").factory());
+        long periodMillis = snapshotInterval.toMillis();
+        snapshotter.scheduleWithFixedDelay(this::writeSnapshotSafely, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    public void warmUp() {
+        List<Long> ids = new ArrayList<>(warmUpIds());
+        if (ids.isEmpty()) {
+            log.info("Cache warm-up: yüklenecek product yok (product-ids boş, snapshot yok)");
+            return;
+        }
+        ids.sort(null);
+        
+        long start = System.nanoTime();
+        AtomicInteger loaded = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, Thread.ofPlatform().name("cache-warm-up-", 0).factory());
+        try {
+            List<CompletableFuture<Void>> chunks = new ArrayList<>();
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+                chunks.add(CompletableFuture.runAsync(() -> loaded.addAndGet(loadChunk(chunk)), executor));
+            }
+            CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            log.info("Cache warm-up: {} / {} product {} chunk'ta {} ms'de yüklendi", loaded.get(), ids.size(),
+                chunks.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (TimeoutException e) {
+            log.warn("Cache warm-up {} içinde bitmedi, {} / {} product yüklendi", timeout, loaded.get(), ids.size());
+        } catch (ExecutionException e) {
+            log.warn("Cache warm-up başarısız, {} / {} product yüklendi", loaded.get(), ids.size(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    /**
+     * Chunk'taki id'ler tek IN-list sorgusu; bu arada istekle yüklenmiş (daha yeni olabilecek) entry'lerin üzerine yazılmaz
+     */
+    private int loadChunk(List<Long> chunk) {
+        List<Product> products = productRepository.findAllById(chunk);
+        Cache cache = productCache();
+        products.forEach(product -> cache.putIfAbsent(product.getId(), product));
+        return products.size();
+    }
+    
+    private Set<Long> warmUpIds() {
+        Set<Long> ids = new LinkedHashSet<>(productIds);
+        if (Files.exists(snapshotFile)) {
+            try (Stream<String> lines = Files.lines(snapshotFile)) {
+                lines.map(String::strip)
+                    .filter(line -> !line.isEmpty())
+                    .map(Long::valueOf)
+                    .limit(topN)
+                    .forEach(ids::add);
+            } catch (IOException | NumberFormatException e) {
+                log.warn("Cache warm-up snapshot okunamadı: {}", snapshotFile, e);
+            }
+        }
+        return new LinkedHashSet<>(ids.stream().limit(topN).toList());
+    }
+    
+    /**
+     * En sıcak top-n id'yi (sıcaktan soğuğa) atomik olarak dosyaya yazar
+     */
+    public void writeSnapshot() {
+        Optional<Policy.Eviction<Object, Object>> eviction = nativeCache().policy().eviction();
+        if (eviction.isEmpty()) {
+            return;
+        }
+        List<String> hottest = eviction.get().hottest(topN).keySet().stream().map(String::valueOf).toList();
+        if (hottest.isEmpty()) {
+            // Hemen kapanan bir instance önceki snapshot'ı silmesin
+            return;
+        }
+        try {
+            Path directory = snapshotFile.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, "products", ".snapshot");
+            Files.write(temp, hottest);
+            Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Cache warm-up snapshot yazıldı: {} id", hottest.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private void writeSnapshotSafely() {
+        try {
+            writeSnapshot();
+        } catch (RuntimeException e) {
+            log.warn("Cache warm-up snapshot yazılamadı: {}", snapshotFile, e);
+        }
+    }
+    
+    private Cache productCache() {
+        return cacheManager.getCache(CacheConfig.PRODUCTS);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache() {
+        return (com.github.benmanes.caffeine.cache.Cache<Object, Object>) productCache().getNativeCache();
+    }
+    
+    /**
+     * Kapanışta son snapshot (CacheManager bu bean'den sonra kapanır)
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (snapshotter == null) {
+            return;
+        }
+        snapshotter.shutdownNow();
+        writeSnapshotSafely();
+    }
+}
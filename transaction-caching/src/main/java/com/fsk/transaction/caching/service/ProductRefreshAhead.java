@@ -0,0 +1,157 @@
+package com.fsk.transaction.caching.service;
+
+import com.fsk.transaction.caching.config.CacheConfig;
+import com.fsk.transaction.caching.entity.Product;
+import com.fsk.transaction.caching.repository.ProductRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Policy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Refresh-ahead: expire olmaya yakın ve hâlâ okunan product'lar arka planda yeniden yüklenir
+ *
+ * Cache hit'te entry'nin yaşı TTL'in threshold oranını (ör. 0.8 → 10 dakikalık TTL'de 8. dakika) geçmişse
+ * reload sınırlı bir executor'a verilir; caller beklemez, mevcut değeri alır. Böylece sık okunan product'lar
+ * hiç expire olmaz ve kimse senkron miss ödemez. Hiç okunmayan entry'ler normal şekilde expire olur.
+ *
+ * - Reload read-only transaction'da yapılır
+ * - Bir key için aynı anda tek reload
+ * - Executor doluysa reload atlanır (entry expire olunca normal miss yolu çalışır)
+ * - Sonuç cache'e compare-and-replace ile yazılır: reload sürerken entry güncellendiyse (ör. commit edilen bir
+ *   update) eski okumayla üzerine yazılmaz
+ */
+@Component
+@Slf4j
+public class ProductRefreshAhead {
+    
+    private final ProductRepository productRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final CacheManager cacheManager;
+    private final PriceWriteBehindBuffer priceWriteBehindBuffer;
+    private final boolean enabled;
+    private final double threshold;
+    private final Duration ttl;
+    private final ThreadPoolExecutor executor;
+    
+    private final Set<Long> refreshing = ConcurrentHashMap.newKeySet();
+    private final Counter refreshes;
+    private final Counter skipped;
+    
+    public ProductRefreshAhead(ProductRepository productRepository,
+                               PlatformTransactionManager transactionManager,
+                               CacheManager cacheManager,
+                               PriceWriteBehindBuffer priceWriteBehindBuffer,
+                               MeterRegistry meterRegistry,
+                               @Value("${caching.cache.expire-after-write:10m}") Duration ttl,
+                               @Value("${caching.refresh-ahead.enabled:true}") boolean enabled,
+                               @Value("${caching.refresh-ahead.threshold:0.8}") double threshold,
+                               @Value("${caching.refresh-ahead.threads:2}") int threads,
+                               @Value("${caching.refresh-ahead.queue-capacity:100}") int queueCapacity) {
+        if (threshold <= 0 || threshold >= 1) {
+            throw new IllegalArgumentException("caching.refresh-ahead.threshold 0 ile 1 arasında olmalı: " + threshold);
+        }
+        this.productRepository = productRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.cacheManager = cacheManager;
+        this.priceWriteBehindBuffer = priceWriteBehindBuffer;
+        this.enabled = enabled;
+        this.threshold = threshold;
+        this.ttl = ttl;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), Thread.ofPlatform().name("product-refresh-ahead-", 0).factory(),
+            new ThreadPoolExecutor.AbortPolicy());
+        this.refreshes = meterRegistry.counter("cache.refresh-ahead.refreshed", "cache", CacheConfig.PRODUCTS);
+        this.skipped = meterRegistry.counter("cache.refresh-ahead.skipped", "cache", CacheConfig.PRODUCTS);
+    }
+    
+    /**
+     * Cache hit sonrası çağrılır; gerekirse reload'u arka plana verir
+     */
+    public void onHit(Long id, Product cached) {
+        if (!enabled || !isNearExpiry(id) || !refreshing.add(id)) {
+            return;
+        }
+        try {
+            executor.execute(() -> refresh(id, cached));
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(id);
+            skipped.increment();
+        }
+    }
+    
+    private boolean isNearExpiry(Long id) {
+        OptionalLong remainingMillis = remainingMillis(id);
+        return remainingMillis.isPresent() && remainingMillis.getAsLong() <= ttl.toMillis() * (1 - threshold);
+    }
+    
+    /**
+     * Entry'nin expire olmasına kalan süre: sabit expireAfterWrite veya (off-heap katman açıkken) değişken expiry.
+     * Off-heap'ten çıkarılan entry kalan TTL'i ile geldiği için yaşı değil kalan süresi esas alınır.
+     */
+    private OptionalLong remainingMillis(Long id) {
+        Policy<Object, Object> policy = nativeCache().policy();
+        Optional<Policy.VarExpiration<Object, Object>> variable = policy.expireVariably();
+        if (variable.isPresent()) {
+            return variable.get().getExpiresAfter(id, TimeUnit.MILLISECONDS);
+        }
+        Optional<Policy.FixedExpiration<Object, Object>> fixed = policy.expireAfterWrite();
+        if (fixed.isEmpty()) {
+            return OptionalLong.empty();
+        }
+        OptionalLong ageMillis = fixed.get().ageOf(id, TimeUnit.MILLISECONDS);
+        return ageMillis.isPresent()
+            ? OptionalLong.of(fixed.get().getExpiresAfter(TimeUnit.MILLISECONDS) - ageMillis.getAsLong())
+            : OptionalLong.empty();
+    }
+    
+    private void refresh(Long id, Product cached) {
+        try {
+            // Okuma sürerken commit olan flush'ın fiyatı kaybolmasın diye okumadan önce de bakılır
+            Optional<Double> pendingBefore = priceWriteBehindBuffer.pendingPrice(id);
+            Optional<Product> reloaded = readOnlyTransaction.execute(status -> productRepository.findById(id));
+            if (reloaded.isEmpty()) {
+                nativeCache().asMap().remove(id, cached);
+                return;
+            }
+            Product product = reloaded.get();
+            priceWriteBehindBuffer.pendingPrice(id).or(() -> pendingBefore).ifPresent(product::setPrice);
+            if (nativeCache().asMap().replace(id, cached, product)) {
+                refreshes.increment();
+                log.debug("Refresh-ahead: product {} yenilendi", id);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Refresh-ahead başarısız, product {} expire olunca yeniden yüklenecek: {}", id, e.getMessage());
+        } finally {
+            refreshing.remove(id);
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private Cache<Object, Object> nativeCache() {
+        return (Cache<Object, Object>) cacheManager.getCache(CacheConfig.PRODUCTS).getNativeCache();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
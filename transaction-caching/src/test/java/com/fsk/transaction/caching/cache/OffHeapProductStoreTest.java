@@ -0,0 +1,120 @@
+package com.fsk.transaction.caching.cache;
+
+import com.fsk.transaction.caching.entity.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OffHeapProductStoreTest {
+    
+    private static final int SLOT_SIZE = 64;
+    private static final long TTL = 1_000;
+    
+    // Expire zamanları için elle ilerletilen saat
+    private final AtomicLong ticker = new AtomicLong();
+    private OffHeapProductStore store;
+    
+    @AfterEach
+    void close() {
+        if (store != null) {
+            store.close();
+        }
+    }
+    
+    @Test
+    void storesAndReadsProductOffHeap() {
+        store = new OffHeapProductStore(SLOT_SIZE * 64, SLOT_SIZE, 4, ticker::get);
+        Product product = new Product(7L, "Kalem", 3.5, null);
+        
+        assertThat(store.put(product, TTL)).isTrue();
+        
+        assertThat(store.get(7L)).contains(product);
+        assertThat(store.getStats().size()).isEqualTo(1);
+        assertThat(store.getStats().hits()).isEqualTo(1);
+    }
+    
+    @Test
+    void takeReturnsRemainingTtlAndFreesTheSlot() {
+        store = new OffHeapProductStore(SLOT_SIZE * 64, SLOT_SIZE, 4, ticker::get);
+        store.put(new Product(1L, "a", 1.0, 1), TTL);
+        ticker.addAndGet(400);
+        
+        OffHeapProductStore.OffHeapEntry entry = store.take(1L).orElseThrow();
+        
+        assertThat(entry.remainingNanos()).isEqualTo(TTL - 400);
+        assertThat(store.get(1L)).isEmpty();
+        assertThat(store.getStats().size()).isZero();
+    }
+    
+    @Test
+    void expiredSlotIsAMiss() {
+        store = new OffHeapProductStore(SLOT_SIZE * 64, SLOT_SIZE, 4, ticker::get);
+        store.put(new Product(1L, "a", 1.0, 1), TTL);
+        store.put(new Product(2L, "b", 2.0, 2), TTL);
+        ticker.addAndGet(TTL);
+        
+        assertThat(store.get(1L)).isEmpty();
+        assertThat(store.take(2L)).isEmpty();
+        assertThat(store.getStats().expirations()).isEqualTo(2);
+        assertThat(store.getStats().size()).isZero();
+    }
+    
+    @Test
+    void rejectsExpiredTtlAndOversizedName() {
+        store = new OffHeapProductStore(SLOT_SIZE * 64, SLOT_SIZE, 4, ticker::get);
+        store.put(new Product(1L, "a", 1.0, 1), TTL);
+        
+        // Yazılamayan yeni değer eskisini de siler (stale kalmasın)
+        assertThat(store.put(new Product(1L, "a", 9.0, 1), 0)).isFalse();
+        assertThat(store.put(new Product(2L, "x".repeat(SLOT_SIZE), 1.0, 1), TTL)).isFalse();
+        
+        assertThat(store.get(1L)).isEmpty();
+        assertThat(store.getStats().rejected()).isEqualTo(2);
+    }
+    
+    /**
+     * Tek bucket, 2 way: dolu bucket'a yazma en uzun süredir erişilmeyen slot'un üzerine yazar
+     */
+    @Test
+    void evictsLeastRecentlyAccessedSlotOfTheBucket() {
+        store = new OffHeapProductStore(SLOT_SIZE * 2, SLOT_SIZE, 2, ticker::get);
+        store.put(new Product(1L, "a", 1.0, 1), TTL);
+        store.put(new Product(2L, "b", 2.0, 2), TTL);
+        store.get(1L);
+        
+        store.put(new Product(3L, "c", 3.0, 3), TTL);
+        
+        assertThat(store.get(1L)).isPresent();
+        assertThat(store.get(2L)).isEmpty();
+        assertThat(store.get(3L)).isPresent();
+        assertThat(store.getStats().evictions()).isEqualTo(1);
+        assertThat(store.getStats().size()).isEqualTo(2);
+    }
+    
+    @Test
+    void overwritingAKeyReusesItsSlot() {
+        store = new OffHeapProductStore(SLOT_SIZE * 2, SLOT_SIZE, 2, ticker::get);
+        store.put(new Product(1L, "a", 1.0, 1), TTL);
+        store.put(new Product(1L, "a", 5.0, 1), TTL);
+        
+        assertThat(store.get(1L)).get().extracting(Product::getPrice).isEqualTo(5.0);
+        assertThat(store.getStats().size()).isEqualTo(1);
+        assertThat(store.getStats().evictions()).isZero();
+    }
+    
+    @Test
+    void clearFreesAllSlots() {
+        store = new OffHeapProductStore(SLOT_SIZE * 64, SLOT_SIZE, 4, ticker::get);
+        for (long id = 1; id <= 10; id++) {
+            store.put(new Product(id, "p" + id, 1.0, 1), TTL);
+        }
+        
+        store.clear();
+        
+        assertThat(store.getStats().size()).isZero();
+        assertThat(store.get(5L)).isEmpty();
+    }
+}
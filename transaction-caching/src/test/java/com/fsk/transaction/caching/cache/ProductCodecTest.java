@@ -0,0 +1,50 @@
+package com.fsk.transaction.caching.cache;
+
+import com.fsk.transaction.caching.entity.Product;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.MemorySegment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductCodecTest {
+    
+    @Test
+    void roundTripsAllFields() {
+        Product product = new Product(42L, "Çay bardağı ☕", 12.75, 300);
+        
+        assertThat(roundTrip(product, 64)).isEqualTo(product);
+    }
+    
+    @Test
+    void keepsNullStockApartFromZero() {
+        assertThat(roundTrip(new Product(1L, "a", 1.0, null), 64).getStock()).isNull();
+        assertThat(roundTrip(new Product(2L, "b", 1.0, 0), 64).getStock()).isZero();
+    }
+    
+    @Test
+    void rejectsNameThatDoesNotFitThePayload() {
+        Product product = new Product(1L, "x".repeat(50), 1.0, 1);
+        
+        assertThat(ProductCodec.encodeName(product, ProductCodec.HEADER_SIZE + 49)).isNull();
+        assertThat(ProductCodec.encodeName(product, ProductCodec.HEADER_SIZE + 50)).hasSize(50);
+    }
+    
+    /**
+     * Name uzunluğu UTF-8 byte sayısıdır, karakter sayısı değil
+     */
+    @Test
+    void measuresNameInUtf8Bytes() {
+        Product product = new Product(1L, "ğğ", 1.0, 1);
+        
+        assertThat(ProductCodec.encodeName(product, ProductCodec.HEADER_SIZE + 3)).isNull();
+        assertThat(ProductCodec.encodeName(product, ProductCodec.HEADER_SIZE + 4)).hasSize(4);
+    }
+    
+    private static Product roundTrip(Product product, int payloadSize) {
+        MemorySegment payload = MemorySegment.ofArray(new byte[payloadSize]);
+        byte[] name = ProductCodec.encodeName(product, payloadSize);
+        ProductCodec.encode(payload, product, name);
+        return ProductCodec.decode(product.getId(), payload);
+    }
+}
@@ -0,0 +1,125 @@
+package com.fsk.transaction.caching.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+    
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    @Test
+    void concurrentMissesShareTheLeadersLoad() throws Exception {
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>("products", Duration.ofSeconds(10), new SimpleMeterRegistry());
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> singleFlight.load(1L, () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return "product-1";
+        }), executor);
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        
+        CompletableFuture<String> follower = CompletableFuture.supplyAsync(() -> singleFlight.load(1L, () -> {
+            loads.incrementAndGet();
+            return "follower";
+        }), executor);
+        awaitCoalesced(singleFlight, 1);
+        release.countDown();
+        
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("product-1");
+        assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("product-1");
+        assertThat(loads).hasValue(1);
+        assertThat(singleFlight.getLeaderLoads()).isEqualTo(1);
+        assertThat(singleFlight.getCoalescedLoads()).isEqualTo(1);
+    }
+    
+    @Test
+    void waiterLoadsItselfAfterTimeout() throws Exception {
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>("products", Duration.ofMillis(50), new SimpleMeterRegistry());
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> singleFlight.load(1L, () -> {
+            loading.countDown();
+            await(release);
+            return "slow";
+        }), executor);
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        
+        assertThat(singleFlight.load(1L, () -> "own")).isEqualTo("own");
+        assertThat(singleFlight.getTimeouts()).isEqualTo(1);
+        
+        release.countDown();
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("slow");
+    }
+    
+    @Test
+    void leaderFailureIsPropagatedToWaiters() throws Exception {
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>("products", Duration.ofSeconds(10), new SimpleMeterRegistry());
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> singleFlight.load(1L, () -> {
+            loading.countDown();
+            await(release);
+            throw new IllegalStateException("veritabanı hatası");
+        }), executor);
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        
+        CompletableFuture<String> follower = CompletableFuture.supplyAsync(() -> singleFlight.load(1L, () -> "follower"), executor);
+        awaitCoalesced(singleFlight, 1);
+        release.countDown();
+        
+        assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS)).hasRootCauseMessage("veritabanı hatası");
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasRootCauseMessage("veritabanı hatası");
+    }
+    
+    @Test
+    void nextMissAfterCompletionStartsANewLoad() {
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>("products", Duration.ofSeconds(10), new SimpleMeterRegistry());
+        
+        assertThat(singleFlight.load(1L, () -> "first")).isEqualTo("first");
+        assertThat(singleFlight.load(1L, () -> "second")).isEqualTo("second");
+        assertThat(singleFlight.getLeaderLoads()).isEqualTo(2);
+        assertThat(singleFlight.getCoalescedLoads()).isZero();
+    }
+    
+    /**
+     * Follower'ın leader'ın future'ını beklemeye başladığı an (coalesced sayacı bekleme öncesi artar)
+     */
+    private static void awaitCoalesced(SingleFlight<?, ?> singleFlight, long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.getCoalescedLoads() < expected) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(1);
+        }
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
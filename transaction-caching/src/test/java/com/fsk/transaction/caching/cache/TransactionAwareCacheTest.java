@@ -0,0 +1,162 @@
+package com.fsk.transaction.caching.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Transaction, TransactionSynchronizationManager ile elle simüle edilir (veritabanı gerekmez)
+ */
+class TransactionAwareCacheTest {
+    
+    private final Cache target = new ConcurrentMapCache("products");
+    private final TransactionAwareCache cache = new TransactionAwareCache(target);
+    
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+    
+    @Test
+    void putOutsideTransactionGoesStraightToTarget() {
+        cache.put(1L, "a");
+        
+        assertThat(target.get(1L, String.class)).isEqualTo("a");
+    }
+    
+    @Test
+    void putInsideTransactionIsAppliedOnCommit() {
+        begin();
+        cache.put(1L, "a");
+        
+        assertThat(target.get(1L)).isNull();
+        
+        commit();
+        assertThat(target.get(1L, String.class)).isEqualTo("a");
+    }
+    
+    @Test
+    void rollbackDiscardsPendingWrites() {
+        target.put(1L, "old");
+        target.put(2L, "kept");
+        
+        begin();
+        cache.put(1L, "new");
+        cache.evict(2L);
+        rollback();
+        
+        assertThat(target.get(1L, String.class)).isEqualTo("old");
+        assertThat(target.get(2L, String.class)).isEqualTo("kept");
+    }
+    
+    @Test
+    void writesToSameKeyAreCoalesced() {
+        begin();
+        cache.put(1L, "a");
+        cache.put(1L, "b");
+        cache.evict(2L);
+        cache.put(2L, "c");
+        
+        assertThat(pendingSynchronizations()).isEqualTo(1);
+        
+        commit();
+        assertThat(target.get(1L, String.class)).isEqualTo("b");
+        assertThat(target.get(2L, String.class)).isEqualTo("c");
+    }
+    
+    @Test
+    void readsSeePendingWritesOfTheSameTransaction() {
+        target.put(2L, "committed");
+        
+        begin();
+        cache.put(1L, "pending");
+        cache.evict(2L);
+        
+        assertThat(cache.get(1L).get()).isEqualTo("pending");
+        assertThat(cache.get(1L, String.class)).isEqualTo("pending");
+        assertThat(cache.get(2L)).isNull();
+        assertThat(target.get(2L, String.class)).isEqualTo("committed");
+    }
+    
+    @Test
+    void clearHidesCommittedEntriesAndIsAppliedBeforeLaterPuts() {
+        target.put(1L, "a");
+        target.put(2L, "b");
+        
+        begin();
+        cache.clear();
+        cache.put(3L, "c");
+        
+        assertThat(cache.get(1L)).isNull();
+        assertThat(cache.get(3L, String.class)).isEqualTo("c");
+        
+        commit();
+        assertThat(target.get(1L)).isNull();
+        assertThat(target.get(2L)).isNull();
+        assertThat(target.get(3L, String.class)).isEqualTo("c");
+    }
+    
+    @Test
+    void valueLoadedInsideTransactionIsDeferred() {
+        begin();
+        String value = cache.get(1L, () -> "loaded");
+        
+        assertThat(value).isEqualTo("loaded");
+        assertThat(target.get(1L)).isNull();
+        assertThat(cache.get(1L, () -> "not called")).isEqualTo("loaded");
+        
+        commit();
+        assertThat(target.get(1L, String.class)).isEqualTo("loaded");
+    }
+    
+    @Test
+    void decoratorsOfSameTargetShareTheBuffer() {
+        TransactionAwareCache other = new TransactionAwareCache(target);
+        
+        begin();
+        cache.put(1L, "a");
+        
+        assertThat(other.get(1L, String.class)).isEqualTo("a");
+        assertThat(pendingSynchronizations()).isEqualTo(1);
+    }
+    
+    @Test
+    void immediateOperationsAreNotDeferred() {
+        begin();
+        cache.putIfAbsent(1L, "a");
+        
+        assertThat(target.get(1L, String.class)).isEqualTo("a");
+        assertThat(cache.evictIfPresent(1L)).isTrue();
+        assertThat(target.get(1L)).isNull();
+    }
+    
+    private static void begin() {
+        TransactionSynchronizationManager.initSynchronization();
+    }
+    
+    private static void commit() {
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+    }
+    
+    private static void rollback() {
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+    }
+    
+    private static void complete(int status) {
+        TransactionSynchronizationUtils.triggerAfterCompletion(status);
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+    
+    private static int pendingSynchronizations() {
+        return TransactionSynchronizationManager.getSynchronizations().size();
+    }
+}
@@ -0,0 +1,268 @@
+package com.fsk.transaction.caching.service;
+
+import com.fsk.transaction.caching.cache.CacheInvalidationBus;
+import com.fsk.transaction.caching.config.CacheConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * JdbcTemplate, transaction manager ve invalidation bus mock'tur (veritabanı gerekmez)
+ */
+class PriceWriteBehindBufferTest {
+    
+    private static final String UPDATE_PRICE = "UPDATE products_cache SET price = ? WHERE id = ?";
+    
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final CacheInvalidationBus cacheInvalidationBus = mock(CacheInvalidationBus.class);
+    // Her batchUpdate çağrısının (productId -> price) kopyası
+    private final List<Map<Long, Double>> batches = new ArrayList<>();
+    
+    private PriceWriteBehindBuffer buffer;
+    
+    @AfterEach
+    void stop() {
+        if (buffer != null && buffer.isRunning()) {
+            buffer.stop();
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+    
+    @Test
+    void coalescesUpdatesToTheSameProduct() {
+        buffer = newBuffer(1000, Duration.ofMillis(500));
+        recordBatches();
+        
+        buffer.enqueue(1L, 10.0);
+        buffer.enqueue(1L, 11.0);
+        buffer.enqueue(2L, 20.0);
+        
+        assertThat(buffer.pendingPrice(1L)).contains(11.0);
+        assertThat(buffer.getStats().pending()).isEqualTo(2);
+        assertThat(buffer.getStats().coalesced()).isEqualTo(1);
+        
+        buffer.flush();
+        
+        assertThat(batches).containsExactly(Map.of(1L, 11.0, 2L, 20.0));
+        assertThat(buffer.pendingPrice(1L)).isEmpty();
+        assertThat(buffer.getStats().flushed()).isEqualTo(2);
+        verify(cacheInvalidationBus).publish(CacheConfig.PRODUCTS, 1L);
+        verify(cacheInvalidationBus).publish(CacheConfig.PRODUCTS, 2L);
+    }
+    
+    @Test
+    void failedBatchIsRequeued() {
+        buffer = newBuffer(1000, Duration.ofMillis(500));
+        failBatches();
+        
+        buffer.enqueue(1L, 10.0);
+        buffer.enqueue(2L, 20.0);
+        buffer.flush();
+        
+        assertThat(buffer.getStats().pending()).isEqualTo(2);
+        assertThat(buffer.getStats().failed()).isEqualTo(2);
+        assertThat(buffer.pendingPrice(1L)).contains(10.0);
+        verify(cacheInvalidationBus, never()).publish(eq(CacheConfig.PRODUCTS), any());
+    }
+    
+    @Test
+    void requeueKeepsPriceEnqueuedDuringTheFailedFlush() {
+        buffer = newBuffer(1000, Duration.ofMillis(500));
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+            .thenAnswer(invocation -> {
+                // Flush sürerken gelen daha yeni fiyat, geri alınan eski fiyatla ezilmemeli
+                buffer.enqueue(1L, 99.0);
+                throw new DataAccessResourceFailureException("bağlantı yok");
+            });
+        
+        buffer.enqueue(1L, 10.0);
+        buffer.flush();
+        
+        assertThat(buffer.pendingPrice(1L)).contains(99.0);
+    }
+    
+    @Test
+    void pendingPriceIsVisibleWhileItsBatchIsBeingWritten() {
+        buffer = newBuffer(1000, Duration.ofMillis(500));
+        List<Double> seenDuringWrite = new ArrayList<>();
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+            .thenAnswer(invocation -> {
+                seenDuringWrite.add(buffer.pendingPrice(1L).orElse(null));
+                return new int[][] {{1}};
+            });
+        
+        buffer.enqueue(1L, 10.0);
+        buffer.flush();
+        
+        assertThat(seenDuringWrite).containsExactly(10.0);
+        assertThat(buffer.pendingPrice(1L)).isEmpty();
+    }
+    
+    @Test
+    void fullQueueFallsBackToWriteThroughAfterTimeout() {
+        buffer = newBuffer(2, Duration.ofMillis(50));
+        buffer.start();
+        // Veritabanı erişilemiyor: flush yer açamaz, kuyruk dolu kalır
+        failBatches();
+        
+        buffer.enqueue(1L, 10.0);
+        buffer.enqueue(2L, 20.0);
+        buffer.enqueue(3L, 30.0);
+        
+        verify(jdbcTemplate).update(UPDATE_PRICE, 30.0, 3L);
+        assertThat(buffer.getStats().writeThrough()).isEqualTo(1);
+        assertThat(buffer.pendingPrice(3L)).isEmpty();
+        assertThat(buffer.getStats().pending()).isEqualTo(2);
+    }
+    
+    @Test
+    void updateOfAnAlreadyPendingProductIsCoalescedEvenWhenFull() {
+        buffer = newBuffer(2, Duration.ofMillis(50));
+        buffer.start();
+        failBatches();
+        
+        buffer.enqueue(1L, 10.0);
+        buffer.enqueue(2L, 20.0);
+        buffer.enqueue(1L, 11.0);
+        
+        assertThat(buffer.pendingPrice(1L)).contains(11.0);
+        assertThat(buffer.getStats().writeThrough()).isZero();
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+    
+    @Test
+    void committedSynchronousUpdateSupersedesPendingPrice() {
+        buffer = newBuffer(1000, Duration.ofMillis(500));
+        recordBatches();
+        buffer.enqueue(1L, 10.0);
+        
+        TransactionSynchronizationManager.initSynchronization();
+        buffer.supersedeOnCommit(1L, 50.0);
+        assertThat(buffer.pendingPrice(1L)).contains(10.0);
+        commit();
+        
+        assertThat(buffer.pendingPrice(1L)).contains(50.0);
+        buffer.flush();
+        assertThat(batches).containsExactly(Map.of(1L, 50.0));
+    }
+    
+    @Test
+    void rolledBackSynchronousUpdateLeavesPendingPrice() {
+        buffer = newBuffer(1000, Duration.ofMillis(500));
+        buffer.enqueue(1L, 10.0);
+        
+        TransactionSynchronizationManager.initSynchronization();
+        buffer.supersedeOnCommit(1L, 50.0);
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        
+        assertThat(buffer.pendingPrice(1L)).contains(10.0);
+    }
+    
+    @Test
+    void synchronousUpdateIsRequeuedWhenStalePriceIsFlushedDuringCommit() {
+        buffer = newBuffer(1000, Duration.ofMillis(500));
+        recordBatches();
+        buffer.enqueue(1L, 10.0);
+        
+        TransactionSynchronizationManager.initSynchronization();
+        buffer.supersedeOnCommit(1L, 50.0);
+        TransactionSynchronizationUtils.triggerBeforeCommit(false);
+        // Eski fiyatın flush'ı senkron güncellemenin satır kilidini bekleyip ondan sonra commit olur
+        buffer.flush();
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        
+        assertThat(buffer.pendingPrice(1L)).contains(50.0);
+        buffer.flush();
+        assertThat(batches).containsExactly(Map.of(1L, 10.0), Map.of(1L, 50.0));
+    }
+    
+    @Test
+    void newerWriteBehindPriceIsKeptOverSynchronousUpdate() {
+        buffer = newBuffer(1000, Duration.ofMillis(500));
+        buffer.enqueue(1L, 10.0);
+        
+        TransactionSynchronizationManager.initSynchronization();
+        buffer.supersedeOnCommit(1L, 50.0);
+        TransactionSynchronizationUtils.triggerBeforeCommit(false);
+        buffer.enqueue(1L, 12.0);
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        
+        assertThat(buffer.pendingPrice(1L)).contains(12.0);
+    }
+    
+    @Test
+    void synchronousUpdateWithoutPendingPriceIsNotQueued() {
+        buffer = newBuffer(1000, Duration.ofMillis(500));
+        
+        TransactionSynchronizationManager.initSynchronization();
+        buffer.supersedeOnCommit(1L, 50.0);
+        commit();
+        
+        assertThat(buffer.pendingPrice(1L)).isEmpty();
+        assertThat(buffer.getStats().pending()).isZero();
+    }
+    
+    /**
+     * Timer flush'ı testlere karışmasın diye max-unflushed-age uzun tutulur
+     */
+    private PriceWriteBehindBuffer newBuffer(int maxUnflushedCount, Duration backpressureTimeout) {
+        return new PriceWriteBehindBuffer(jdbcTemplate, mock(PlatformTransactionManager.class), cacheInvalidationBus,
+            new SimpleMeterRegistry(), Duration.ofHours(1), maxUnflushedCount, 500, backpressureTimeout);
+    }
+    
+    private static void commit() {
+        TransactionSynchronizationUtils.triggerBeforeCommit(false);
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+    }
+    
+    private static void complete(int status) {
+        TransactionSynchronizationUtils.triggerAfterCompletion(status);
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+    
+    private void recordBatches() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+            .thenAnswer(invocation -> {
+                Collection<Map.Entry<Long, Double>> batch = invocation.getArgument(1);
+                Map<Long, Double> copy = new LinkedHashMap<>();
+                batch.forEach(entry -> copy.put(entry.getKey(), entry.getValue()));
+                batches.add(copy);
+                return new int[][] {new int[batch.size()]};
+            });
+    }
+    
+    private void failBatches() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+            .thenThrow(new DataAccessResourceFailureException("bağlantı yok"));
+    }
+}
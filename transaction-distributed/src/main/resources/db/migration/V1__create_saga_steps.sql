@@ -0,0 +1,9 @@
+-- Hibernate'in (ddl-auto=update) ürettiği tablo ile aynı; mevcut veritabanlarında no-op
+CREATE TABLE IF NOT EXISTS saga_steps (
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    saga_id           VARCHAR(255) NOT NULL,
+    step_name         VARCHAR(255) NOT NULL,
+    status            VARCHAR(255) NOT NULL,
+    executed_at       TIMESTAMP(6),
+    compensation_data VARCHAR(255)
+);
@@ -0,0 +1,2 @@
+-- findBySagaId: compensation sırasında saga'nın step'leri
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_saga_steps_saga_id ON saga_steps (saga_id);
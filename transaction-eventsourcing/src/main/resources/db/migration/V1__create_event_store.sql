@@ -0,0 +1,9 @@
+-- Hibernate'in (ddl-auto=update) ürettiği tablo ile aynı; mevcut veritabanlarında no-op
+CREATE TABLE IF NOT EXISTS event_store (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    aggregate_id VARCHAR(255) NOT NULL,
+    event_type  VARCHAR(255) NOT NULL,
+    event_data  TEXT         NOT NULL,
+    version     BIGINT       NOT NULL,
+    occurred_at TIMESTAMP(6) NOT NULL
+);
@@ -0,0 +1,5 @@
+-- findByAggregateIdOrderByVersionAsc: aggregate'in event'leri index sırasıyla okunur, ayrı sort gerekmez
+-- Snapshot'lar version 0 ile tekrar eklenebildiği için unique değil
+-- CONCURRENTLY: yazmalar devam eder (SHARE UPDATE EXCLUSIVE lock), ama index build tablodaki açık transaction'ları bekler;
+-- Flyway bu migration'ı transaction dışında çalıştırır
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_event_store_aggregate_id_version ON event_store (aggregate_id, version);
@@ -0,0 +1,7 @@
+-- Hibernate'in (ddl-auto=update) ürettiği tablo ile aynı; mevcut veritabanlarında no-op
+CREATE TABLE IF NOT EXISTS inventory (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    product_name VARCHAR(255) NOT NULL,
+    quantity     INTEGER      NOT NULL,
+    price        FLOAT(53)
+);
@@ -0,0 +1,2 @@
+-- sumQuantityByProductName: INCLUDE (quantity) ile SUM index-only scan ile hesaplanır
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_inventory_product_name ON inventory (product_name) INCLUDE (quantity);
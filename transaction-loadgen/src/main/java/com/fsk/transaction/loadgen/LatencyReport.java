@@ -0,0 +1,69 @@
+package com.fsk.transaction.loadgen;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Percentile raporları
+ * - konsol: response time (CO düzeltilmiş) ve service time percentile'ları, ms
+ * - <senaryo>.hgrm: HdrHistogram percentile dağılımı (HdrHistogram plotter ile build'ler üst üste çizilebilir)
+ * - summary.csv: build karşılaştırması için tek satırlık özetler (valid=false: dropped istek var, sistem doymuş)
+ */
+public final class LatencyReport {
+    
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+    private static final double MICROS_PER_MILLI = 1000.0;
+    
+    private LatencyReport() {
+    }
+    
+    public static void print(RunResult result, PrintStream out) {
+        out.printf(Locale.ROOT, "%n== %s: %d istek, %d hata, %d dropped, hedef %d req/s, gerçekleşen %.1f req/s%n",
+            result.scenario(), result.sent(), result.errors(), result.dropped(), result.targetRate(), result.achievedRate());
+        out.printf(Locale.ROOT, "%-16s %10s %10s %10s %10s %10s %10s%n", "(ms)", "p50", "p90", "p99", "p99.9", "p99.99", "max");
+        printRow(out, "response time", result.responseTime());
+        printRow(out, "service time", result.serviceTime());
+        if (result.saturated()) {
+            out.printf(Locale.ROOT, "UYARI: %d istek max-in-flight nedeniyle gönderilmedi (timeout ile kaydedildi); "
+                + "sistem doymuş, percentile'lar geçerli bir ölçüm değil%n", result.dropped());
+        }
+    }
+    
+    public static void writeHistogram(RunResult result, Path file) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            result.responseTime().outputPercentileDistribution(out, MICROS_PER_MILLI);
+        }
+    }
+    
+    public static void writeSummary(List<RunResult> results, Path file) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("scenario,target_rate,achieved_rate,sent,errors,dropped,valid,p50_ms,p90_ms,p99_ms,p999_ms,p9999_ms,max_ms");
+        for (RunResult result : results) {
+            Histogram histogram = result.responseTime();
+            StringBuilder line = new StringBuilder(String.format(Locale.ROOT, "%s,%d,%.1f,%d,%d,%d,%b",
+                result.scenario(), result.targetRate(), result.achievedRate(), result.sent(), result.errors(), result.dropped(),
+                !result.saturated()));
+            for (double percentile : PERCENTILES) {
+                line.append(String.format(Locale.ROOT, ",%.3f", histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI));
+            }
+            line.append(String.format(Locale.ROOT, ",%.3f", histogram.getMaxValue() / MICROS_PER_MILLI));
+            lines.add(line.toString());
+        }
+        Files.write(file, lines);
+    }
+    
+    private static void printRow(PrintStream out, String label, Histogram histogram) {
+        out.printf(Locale.ROOT, "%-16s", label);
+        for (double percentile : PERCENTILES) {
+            out.printf(Locale.ROOT, " %10.3f", histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI);
+        }
+        out.printf(Locale.ROOT, " %10.3f%n", histogram.getMaxValue() / MICROS_PER_MILLI);
+    }
+}
@@ -0,0 +1,63 @@
+package com.fsk.transaction.loadgen;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Modül REST API'leri için open-model yük üreteci
+ *
+ * Örnek:
+ *   --scenario=performance-fetch-join,cqrs-get-order --rate=200 --duration=60s --warmup=10s
+ *
+ * Parametreler:
+ *   --scenario     virgülle ayrılmış senaryo adları veya "all" (liste için --list)
+ *   --rate         saniyedeki istek sayısı (arrival rate, cevap sürelerinden bağımsız)
+ *   --duration     ölçüm süresi (ör. 60s, 2m)
+ *   --warmup       ölçüme girmeyen ısınma süresi
+ *   --host         servislerin çalıştığı host (varsayılan localhost)
+ *   --ids          id'li isteklerde kullanılacak id aralığı üst sınırı (1..ids)
+ *   --max-in-flight aynı anda bekleyen istek sınırı; aşılırsa istek "dropped" sayılır ve response time'a
+ *                  request timeout ile kaydedilir, dropped varsa çıkış kodu 2 (percentile'lar geçersiz)
+ *   --output-dir   .hgrm ve summary.csv'nin yazılacağı dizin
+ */
+public class LoadGeneratorApplication {
+    
+    public static void main(String[] args) throws IOException, InterruptedException {
+        LoadGeneratorConfig config = LoadGeneratorConfig.parse(args);
+        
+        if (config.list()) {
+            Scenarios.all(config).forEach(scenario -> System.out.println(scenario.name() + "  " + scenario.description()));
+            return;
+        }
+        
+        List<Scenario> scenarios = Scenarios.select(config);
+        Files.createDirectories(config.outputDir());
+        OpenModelRunner runner = new OpenModelRunner(config);
+        
+        List<RunResult> results = new ArrayList<>();
+        for (Scenario scenario : scenarios) {
+            if (!config.warmup().isZero()) {
+                System.out.printf("[%s] warmup %s @ %d req/s%n", scenario.name(), config.warmup(), config.rate());
+                runner.run(scenario, config.warmup());
+            }
+            System.out.printf("[%s] ölçüm %s @ %d req/s%n", scenario.name(), config.duration(), config.rate());
+            RunResult result = runner.run(scenario, config.duration());
+            results.add(result);
+            
+            LatencyReport.print(result, System.out);
+            LatencyReport.writeHistogram(result, config.outputDir().resolve(scenario.name() + ".hgrm"));
+        }
+        
+        Path summary = config.outputDir().resolve("summary.csv");
+        LatencyReport.writeSummary(results, summary);
+        System.out.println("Özet: " + summary.toAbsolutePath());
+        
+        if (results.stream().anyMatch(RunResult::saturated)) {
+            System.err.println("Dropped istekler var: hedef rate sistem kapasitesinin üzerinde, sonuçlar geçersiz");
+            System.exit(2);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.fsk.transaction.loadgen;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public record LoadGeneratorConfig(List<String> scenarios,
+                                  int rate,
+                                  Duration duration,
+                                  Duration warmup,
+                                  String host,
+                                  long ids,
+                                  int maxInFlight,
+                                  Path outputDir,
+                                  boolean list) {
+    
+    public static LoadGeneratorConfig parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Beklenmeyen argüman: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                options.put(arg.substring(2), "true");
+            } else {
+                options.put(arg.substring(2, separator), arg.substring(separator + 1));
+            }
+        }
+        
+        int rate = Integer.parseInt(options.getOrDefault("rate", "100"));
+        if (rate <= 0) {
+            throw new IllegalArgumentException("rate pozitif olmalı: " + rate);
+        }
+        return new LoadGeneratorConfig(
+            List.of(options.getOrDefault("scenario", "all").split(",")),
+            rate,
+            parseDuration(options.getOrDefault("duration", "60s")),
+            parseDuration(options.getOrDefault("warmup", "10s")),
+            options.getOrDefault("host", "localhost"),
+            Long.parseLong(options.getOrDefault("ids", "100")),
+            Integer.parseInt(options.getOrDefault("max-in-flight", "10000")),
+            Path.of(options.getOrDefault("output-dir", "target/loadgen")),
+            Boolean.parseBoolean(options.getOrDefault("list", "false")));
+    }
+    
+    /**
+     * 500ms, 30s, 2m veya ISO-8601 (PT30S)
+     */
+    static Duration parseDuration(String value) {
+        if (value.startsWith("P") || value.startsWith("p")) {
+            return Duration.parse(value);
+        }
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        long amount = Long.parseLong(value.substring(0, value.length() - 1));
+        return switch (value.charAt(value.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            case 'h' -> Duration.ofHours(amount);
+            default -> throw new IllegalArgumentException("Geçersiz süre: " + value);
+        };
+    }
+}
@@ -0,0 +1,97 @@
+package com.fsk.transaction.loadgen;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open model: istekler cevapları beklemeden sabit aralıklarla (1 / rate) başlatılır.
+ *
+ * Coordinated omission düzeltmesi: response time, isteğin gönderilmesi gereken zamandan (intended start) ölçülür.
+ * Sistem yavaşladığında gecikmeli gönderilen istekler de bu gecikmeyi sonuca yansıtır.
+ * Karşılaştırma için gerçek gönderim anından ölçülen service time ayrıca kaydedilir.
+ *
+ * max-in-flight aşıldığı için gönderilmeyen (dropped) istekler response time'a request timeout ile (intended
+ * start'tan bu yana geçen süre daha uzunsa o süreyle) kaydedilir: sistem doyduğunda en kötü gecikmeler
+ * histogramdan düşmez, p99 / p99.9 aşırı yükte iyi görünmez. Service time'a kaydedilmezler (gönderilmediler).
+ */
+public class OpenModelRunner {
+    
+    private final LoadGeneratorConfig config;
+    private final HttpClient httpClient;
+    
+    public OpenModelRunner(LoadGeneratorConfig config) {
+        this.config = config;
+        this.httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    }
+    
+    public RunResult run(Scenario scenario, Duration duration) throws InterruptedException {
+        Histogram responseTime = new ConcurrentHistogram(3);
+        Histogram serviceTime = new ConcurrentHistogram(3);
+        AtomicLong errors = new AtomicLong();
+        AtomicLong dropped = new AtomicLong();
+        AtomicInteger inFlight = new AtomicInteger();
+        
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / config.rate();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        long sent = 0;
+        
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long sequence = 0; ; sequence++) {
+                long intendedStart = start + sequence * intervalNanos;
+                if (intendedStart >= end) {
+                    break;
+                }
+                long wait = intendedStart - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                
+                if (inFlight.get() >= config.maxInFlight()) {
+                    // Cevap en erken timeout'ta gelirdi
+                    long lateNanos = Math.max(Scenarios.REQUEST_TIMEOUT.toNanos(), System.nanoTime() - intendedStart);
+                    responseTime.recordValue(TimeUnit.NANOSECONDS.toMicros(lateNanos));
+                    dropped.incrementAndGet();
+                    continue;
+                }
+                
+                long seq = sequence;
+                inFlight.incrementAndGet();
+                sent++;
+                executor.submit(() -> {
+                    long actualStart = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = httpClient.send(scenario.request(seq), HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    } finally {
+                        long now = System.nanoTime();
+                        responseTime.recordValue(TimeUnit.NANOSECONDS.toMicros(now - intendedStart));
+                        serviceTime.recordValue(TimeUnit.NANOSECONDS.toMicros(now - actualStart));
+                        inFlight.decrementAndGet();
+                    }
+                });
+            }
+        }
+        
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        return new RunResult(scenario.name(), config.rate(), sent, errors.get(), dropped.get(), elapsed,
+            responseTime, serviceTime);
+    }
+}
@@ -0,0 +1,33 @@
+package com.fsk.transaction.loadgen;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+
+/**
+ * Histogram değerleri mikrosaniye; responseTime dropped istekleri de içerir (request timeout ile)
+ */
+public record RunResult(String scenario,
+                        int targetRate,
+                        long sent,
+                        long errors,
+                        long dropped,
+                        Duration elapsed,
+                        Histogram responseTime,
+                        Histogram serviceTime) {
+    
+    /**
+     * Tamamlanan istekler (dropped hariç)
+     */
+    public double achievedRate() {
+        return elapsed.isZero() ? 0 : serviceTime.getTotalCount() / (elapsed.toNanos() / 1_000_000_000.0);
+    }
+    
+    /**
+     * Dropped istek varsa yük üreteci hedef rate'i uygulayamamıştır; percentile'lar dropped'ları timeout ile içerir
+     * ama gerçek dağılımı değil, sadece bir alt sınırı gösterir
+     */
+    public boolean saturated() {
+        return dropped > 0;
+    }
+}
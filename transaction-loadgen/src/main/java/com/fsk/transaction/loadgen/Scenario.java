@@ -0,0 +1,14 @@
+package com.fsk.transaction.loadgen;
+
+import java.net.http.HttpRequest;
+import java.util.function.LongFunction;
+
+/**
+ * Tek bir endpoint'e yük senaryosu; sequence numarasından (0, 1, 2, ...) bir istek üretir
+ */
+public record Scenario(String name, String description, LongFunction<HttpRequest> requestFactory) {
+    
+    public HttpRequest request(long sequence) {
+        return requestFactory.apply(sequence);
+    }
+}
@@ -0,0 +1,98 @@
+package com.fsk.transaction.loadgen;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Mevcut controller'lara karşı senaryolar
+ *
+ * Portlar modüllerin application.properties'indeki server.port değerleridir.
+ * Id'li senaryolar (locking, cqrs-get-order, eventsourcing-replay) verinin önceden var olmasını bekler: 1..ids.
+ */
+public final class Scenarios {
+    
+    static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    
+    private Scenarios() {
+    }
+    
+    public static List<Scenario> all(LoadGeneratorConfig config) {
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        String performance = "http://" + config.host() + ":8098/api/performance";
+        String locking = "http://" + config.host() + ":8089/api/locking";
+        String cqrs = "http://" + config.host() + ":8096/api/cqrs";
+        String microservices = "http://" + config.host() + ":8097/api/microservices";
+        String eventsourcing = "http://" + config.host() + ":8095/api/eventsourcing";
+        long ids = Math.max(1, config.ids());
+        
+        return List.of(
+            new Scenario("performance-fetch-join", "GET /api/performance/products/fetch-join (100'lük sayfa)",
+                seq -> get(performance + "/products/fetch-join?size=100")),
+            new Scenario("performance-views", "GET /api/performance/products/views (DTO projection)",
+                seq -> get(performance + "/products/views?size=100")),
+            new Scenario("performance-n-plus-one", "GET /api/performance/products/n-plus-one",
+                seq -> get(performance + "/products/n-plus-one?size=100")),
+            new Scenario("locking-optimistic", "PUT /api/locking/optimistic/{id}",
+                seq -> put(locking + "/optimistic/" + (1 + seq % ids) + "?newSalary=" + (1000 + seq % 1000))),
+            new Scenario("locking-pessimistic", "PUT /api/locking/pessimistic/{id}",
+                seq -> put(locking + "/pessimistic/" + (1 + seq % ids) + "?newSalary=" + (1000 + seq % 1000))),
+            new Scenario("cqrs-create-order", "POST /api/cqrs/order",
+                seq -> postJson(cqrs + "/order", orderJson(runId, seq))),
+            new Scenario("cqrs-get-order", "GET /api/cqrs/order/{id}",
+                seq -> get(cqrs + "/order/" + (1 + seq % ids))),
+            new Scenario("microservices-outbox-order", "POST /api/microservices/order/outbox",
+                seq -> postJson(microservices + "/order/outbox", orderJson(runId, seq))),
+            new Scenario("microservices-idempotent-order", "POST /api/microservices/order/idempotent",
+                seq -> postJson(microservices + "/order/idempotent",
+                    "{\"idempotencyKey\":\"LG-" + runId + "-" + seq + "\","
+                        + "\"orderNumber\":\"LG-" + runId + "-" + seq + "\",\"totalAmount\":" + (10 + seq % 100) + "}")),
+            new Scenario("eventsourcing-append", "POST /api/eventsourcing/event",
+                seq -> postJson(eventsourcing + "/event",
+                    "{\"aggregateId\":\"LG-" + (1 + seq % ids) + "\",\"eventType\":\"LoadGenerated\","
+                        + "\"eventData\":\"{\\\"seq\\\":" + seq + "}\"}")),
+            new Scenario("eventsourcing-replay", "GET /api/eventsourcing/replay/{aggregateId}",
+                seq -> get(eventsourcing + "/replay/LG-" + (1 + seq % ids))));
+    }
+    
+    public static List<Scenario> select(LoadGeneratorConfig config) {
+        List<Scenario> all = all(config);
+        if (config.scenarios().equals(List.of("all"))) {
+            return all;
+        }
+        Map<String, Scenario> byName = all.stream().collect(Collectors.toMap(Scenario::name, Function.identity()));
+        return config.scenarios().stream()
+            .map(String::trim)
+            .map(name -> {
+                Scenario scenario = byName.get(name);
+                if (scenario == null) {
+                    throw new IllegalArgumentException("Bilinmeyen senaryo: " + name + " (liste için --list)");
+                }
+                return scenario;
+            })
+            .toList();
+    }
+    
+    private static String orderJson(String runId, long seq) {
+        return "{\"orderNumber\":\"LG-" + runId + "-" + seq + "\",\"totalAmount\":" + (10 + seq % 100) + "}";
+    }
+    
+    private static HttpRequest get(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri)).timeout(REQUEST_TIMEOUT).GET().build();
+    }
+    
+    private static HttpRequest put(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri)).timeout(REQUEST_TIMEOUT)
+            .PUT(HttpRequest.BodyPublishers.noBody()).build();
+    }
+    
+    private static HttpRequest postJson(String uri, String json) {
+        return HttpRequest.newBuilder(URI.create(uri)).timeout(REQUEST_TIMEOUT)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(json)).build();
+    }
+}
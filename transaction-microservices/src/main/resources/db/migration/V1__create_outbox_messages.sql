@@ -0,0 +1,11 @@
+-- Hibernate'in (ddl-auto=update) ürettiği tablo ile aynı; mevcut veritabanlarında no-op
+CREATE TABLE IF NOT EXISTS outbox_messages (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    aggregate_type VARCHAR(255) NOT NULL,
+    aggregate_id   VARCHAR(255) NOT NULL,
+    event_type     VARCHAR(255) NOT NULL,
+    payload        TEXT         NOT NULL,
+    created_at     TIMESTAMP(6) NOT NULL,
+    processed_at   TIMESTAMP(6),
+    status         VARCHAR(255)
+);
@@ -0,0 +1,5 @@
+-- findByStatusOrderByCreatedAtAsc("PENDING"): partial index sadece bekleyen mesajları içerir.
+-- İşlenen (PROCESSED) mesajlar index'ten düştüğü için index tablo büyüse de küçük kalır,
+-- created_at sırası ORDER BY'ı karşılar.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_outbox_messages_pending_created_at
+    ON outbox_messages (created_at) WHERE status = 'PENDING';
@@ -206,6 +206,23 @@ public class PatternsController {
         return ResponseEntity.ok(employee);
     }
     
+    /**
+     * 24. Cache tutarsızlığı - ÇÖZÜM 2 (Tx-aware cache)
+     * fail=true: rollback olur, cache güncellenmez
+     */
+    @PutMapping("/cache-tx-aware/{id}")
+    public ResponseEntity<String> testTransactionAwareCache(
+            @PathVariable Long id,
+            @RequestParam Double newSalary,
+            @RequestParam(defaultValue = "false") boolean fail) {
+        try {
+            cacheService.updateEmployeeWithTransactionAwareCache(id, newSalary, fail);
+        } catch (RuntimeException e) {
+            return ResponseEntity.ok("Rollback oldu, bekleyen cache güncellemesi atıldı! " + e.getMessage());
+        }
+        return ResponseEntity.ok("Commit oldu, cache güncellendi: " + cacheService.getEmployeeFromTransactionAwareCache(id).orElse(null));
+    }
+    
     /**
      * 26. Transaction propagation zinciri
      */
@@ -4,6 +4,9 @@ import com.fsk.transaction.patterns.entity.Employee;
 import com.fsk.transaction.patterns.repository.EmployeeRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -27,6 +30,9 @@ public class CacheService {
     
     private final Map<Long, Employee> cache = new HashMap<>();
     
+    // ÇÖZÜM 2 için ayrı cache: Spring'in decorator'ı put / evict'i afterCommit'e erteler
+    private final Cache transactionAwareCache = new TransactionAwareCacheDecorator(new ConcurrentMapCache("employees"));
+    
     /**
      * PROBLEM: Cache transaction içinde güncellenirse
      */
@@ -71,10 +77,38 @@ public class CacheService {
         log.info("Cache güncellendi: {}", event.getEmployeeId());
     }
     
+    /**
+     * ÇÖZÜM 2: Transaction-aware cache
+     * Spring'in TransactionAwareCacheDecorator'ı put'u afterCommit'e erteler, rollback'te hiç uygulanmaz.
+     * Event class'ı ve listener gerekmez.
+     */
+    @Transactional
+    public Employee updateEmployeeWithTransactionAwareCache(Long id, Double newSalary, boolean fail) {
+        log.info("updateEmployeeWithTransactionAwareCache - Tx-aware cache ile");
+        
+        Employee employee = employeeRepository.findById(id)
+            .orElseThrow(() -> new RuntimeException("Employee bulunamadı"));
+        
+        employee.setSalary(newSalary);
+        Employee saved = employeeRepository.save(employee);
+        
+        transactionAwareCache.put(id, saved);
+        log.info("Cache güncellemesi commit'e ertelendi: {}", id);
+        
+        if (fail) {
+            throw new RuntimeException("DB rollback olacak, bekleyen cache güncellemesi de atılır");
+        }
+        return saved;
+    }
+    
     public Optional<Employee> getEmployeeFromCache(Long id) {
         return Optional.ofNullable(cache.get(id));
     }
     
+    public Optional<Employee> getEmployeeFromTransactionAwareCache(Long id) {
+        return Optional.ofNullable(transactionAwareCache.get(id, Employee.class));
+    }
+    
     public static class EmployeeUpdatedEvent {
         private final Long employeeId;
         private final Employee employee;
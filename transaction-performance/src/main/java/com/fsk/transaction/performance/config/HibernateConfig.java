@@ -0,0 +1,24 @@
+package com.fsk.transaction.performance.config;
+
+import com.fsk.transaction.performance.monitoring.SqlStatementInspector;
+import com.fsk.transaction.performance.monitoring.SqlStatementTracker;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class HibernateConfig {
+    
+    /**
+     * Statement sayacı: her SQL SqlStatementTracker'dan geçer.
+     * Her statement'ta shape normalizasyonu ve map güncellemesi maliyeti olduğu için varsayılan kapalı
+     * (performance.sql-tracking.enabled=true ile açılır; filter, header advice ve actuator endpoint'i de aynı flag'e bağlı)
+     */
+    @Bean
+    @ConditionalOnProperty(name = "performance.sql-tracking.enabled", havingValue = "true")
+    public HibernatePropertiesCustomizer statementInspectorCustomizer(SqlStatementTracker tracker) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementInspector(tracker));
+    }
+}
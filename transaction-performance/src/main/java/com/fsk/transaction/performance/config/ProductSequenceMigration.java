@@ -0,0 +1,54 @@
+package com.fsk.transaction.performance.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * products_performance id'leri IDENTITY'den SEQUENCE'a (pooled, allocationSize 50) geçti
+ *
+ * ddl-auto=update sequence'ı 1'den başlatır ama mevcut tablonun IDENTITY kolonuna ve satırlarına dokunmaz;
+ * eski satırlarla çakışmamak için açılışta (ilk insert'ten önce):
+ * - id kolonunun IDENTITY default'u kaldırılır (id'leri artık sadece sequence verir)
+ * - sequence mevcut max(id)'nin gerisindeyse setval ile ileri alınır: sonraki nextval'ın bloğu max(id)'den sonra başlar
+ *
+ * İkisi de idempotent; tablo boşsa veya sequence zaten ilerideyse bir şey değişmez.
+ * Sadece PostgreSQL'de çalışır (benchmark'ların H2 veritabanı her seferinde sıfırdan oluşturulur).
+ */
+@Component
+@Slf4j
+public class ProductSequenceMigration {
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    /**
+     * EntityManagerFactory: ddl-auto tablo ve sequence'ı oluşturduktan sonra çalışsın diye
+     */
+    public ProductSequenceMigration(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    @PostConstruct
+    public void migrate() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+            connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) {
+            return;
+        }
+        jdbcTemplate.execute("ALTER TABLE products_performance ALTER COLUMN id DROP IDENTITY IF EXISTS");
+        // Hiç çağrılmamış sequence'ın ilk nextval'ı 1 döner, bu yüzden dolu tabloda is_called=false da ilerletilir
+        List<Long> advancedTo = jdbcTemplate.queryForList("""
+            SELECT setval('products_performance_seq', t.max_id)
+            FROM (SELECT max(id) AS max_id FROM products_performance) t, products_performance_seq s
+            WHERE t.max_id > s.last_value OR (t.max_id IS NOT NULL AND NOT s.is_called)
+            """, Long.class);
+        if (!advancedTo.isEmpty()) {
+            log.info("products_performance_seq mevcut max(id)'ye ilerletildi: {}", advancedTo.getFirst());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.fsk.transaction.performance.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Read replica routing (replica profili: application-replica.properties)
+ *
+ * primary  : spring.datasource.*
+ * replica  : replica.datasource.url (kullanıcı/şifre primary ile aynı)
+ * JPA'ya verilen DataSource: LazyConnectionDataSourceProxy, hedefi primary, read-only DataSource'u replica.
+ * Proxy fiziksel connection'ı ilk kullanımda alır; o ana kadar @Transactional(readOnly = true) connection'ı read-only
+ * işaretlemiş olur ve read-only connection'lar replica'dan gelir (Spring 6.1.2+ setReadOnlyDataSource).
+ * Replica lag'liyken (ReplicaLagMonitor) read-only connection'lar da primary'den alınır.
+ */
+@Configuration
+@ConditionalOnProperty(name = "replica.enabled", havingValue = "true")
+public class ReadReplicaDataSourceConfig {
+    
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+    
+    @Bean
+    @ConfigurationProperties("replica.datasource.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${replica.datasource.url}") String url) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).url(url).build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+    
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                               @Value("${replica.max-lag:2s}") Duration maxLag) {
+        return new ReplicaLagMonitor(replicaDataSource, maxLag);
+    }
+    
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 ReplicaLagMonitor replicaLagMonitor) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(new DelegatingDataSource(replicaDataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return replicaLagMonitor.isReplicaUsable() ? super.getConnection() : primaryDataSource.getConnection();
+            }
+            
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                return replicaLagMonitor.isReplicaUsable()
+                    ? super.getConnection(username, password)
+                    : primaryDataSource.getConnection(username, password);
+            }
+        });
+        return dataSource;
+    }
+}
@@ -0,0 +1,73 @@
+package com.fsk.transaction.performance.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Replica lag'ini periyodik olarak ölçer.
+ * Lag max-lag'i aşarsa, bilinmiyorsa veya sorgu başarısız olursa replica kullanılamaz sayılır (read-only işler primary'ye gider).
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+    
+    /**
+     * Lag (ms) veya bilinmiyorsa null:
+     * - Replica recovery modunda değilse (standby değil) null
+     * - WAL receiver streaming değilse null: bağlantı kopunca receive ve replay LSN'leri donar ve eşit kalır,
+     *   replica saatlerce geride olsa bile lag 0 görünürdü (status okunamıyorsa, ör. pg_read_all_stats yetkisi yoksa, yine null)
+     * - Alınan tüm WAL uygulandıysa 0; aksi halde son uygulanan transaction'dan beri geçen süre.
+     *   Sadece replay timestamp'ine bakmak primary boştayken lag'i yanlışlıkla büyük gösterir.
+     * Bilinmeyen durum lag'li sayılır.
+     */
+    private static final String LAG_QUERY = """
+        SELECT CASE
+                   WHEN NOT pg_is_in_recovery() THEN NULL
+                   WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming') THEN NULL
+                   WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                   ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000
+               END
+        """;
+    
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final Duration maxLag;
+    
+    private volatile boolean replicaUsable;
+    
+    public ReplicaLagMonitor(DataSource replicaDataSource, Duration maxLag) {
+        this.replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+        this.maxLag = maxLag;
+    }
+    
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+    
+    @Scheduled(fixedDelayString = "${replica.lag-check-interval:5s}")
+    public void checkLag() {
+        boolean usable;
+        try {
+            Double lagMillis = replicaJdbcTemplate.queryForObject(LAG_QUERY, Double.class);
+            if (lagMillis == null) {
+                log.warn("Replica lag bilinmiyor (standby değil veya WAL receiver streaming değil), read-only işler primary'ye gidecek");
+                usable = false;
+            } else {
+                usable = lagMillis <= maxLag.toMillis();
+                if (!usable) {
+                    log.warn("Replica lag {} ms > {} ms, read-only işler primary'ye gidecek", lagMillis.longValue(), maxLag.toMillis());
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Replica lag ölçülemedi, read-only işler primary'ye gidecek: {}", e.getMessage());
+            usable = false;
+        }
+        
+        if (usable != replicaUsable) {
+            log.info("Replica routing durumu değişti: {}", usable ? "REPLICA" : "PRIMARY");
+        }
+        replicaUsable = usable;
+    }
+}
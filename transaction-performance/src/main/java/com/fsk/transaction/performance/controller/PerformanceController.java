@@ -1,12 +1,20 @@
 package com.fsk.transaction.performance.controller;
 
+import com.fsk.transaction.performance.dto.ProductView;
+import com.fsk.transaction.performance.entity.Category;
 import com.fsk.transaction.performance.entity.Product;
+import com.fsk.transaction.performance.service.CategoryDictionary;
+import com.fsk.transaction.performance.service.CategoryService;
 import com.fsk.transaction.performance.service.PerformanceService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/performance")
@@ -14,32 +22,174 @@ import java.util.List;
 public class PerformanceController {
     
     private final PerformanceService performanceService;
+    private final CategoryService categoryService;
+    private final CategoryDictionary categoryDictionary;
     
     /**
      * N+1 Problem - YANLIŞ
      */
     @GetMapping("/products/n-plus-one")
-    public ResponseEntity<List<Product>> getProductsWithNPlusOne() {
-        List<Product> products = performanceService.getProductsWithNPlusOneProblem();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<PerformanceService.ProductPage<Product>> getProductsWithNPlusOne(
+            @RequestParam(required = false) String token,
+            @RequestParam(defaultValue = "100") int size) {
+        PerformanceService.ProductPage<Product> page = performanceService.getProductsWithNPlusOneProblem(token, size);
+        return ResponseEntity.ok(page);
     }
     
     /**
      * N+1 Problem - ÇÖZÜM
      */
     @GetMapping("/products/fetch-join")
-    public ResponseEntity<List<Product>> getProductsWithFetchJoin() {
-        List<Product> products = performanceService.getProductsWithFetchJoin();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<PerformanceService.ProductPage<Product>> getProductsWithFetchJoin(
+            @RequestParam(required = false) String token,
+            @RequestParam(defaultValue = "100") int size) {
+        PerformanceService.ProductPage<Product> page = performanceService.getProductsWithFetchJoin(token, size);
+        return ResponseEntity.ok(page);
+    }
+    
+    /**
+     * Category fetch stratejisi çağrı bazında: LAZY, JOIN_FETCH, ENTITY_GRAPH, BATCH_FETCH, SUBSELECT
+     */
+    @GetMapping("/products")
+    public ResponseEntity<PerformanceService.ProductPage<PerformanceService.ProductExportRow>> getProducts(
+            @RequestParam(defaultValue = "JOIN_FETCH") PerformanceService.FetchStrategy strategy,
+            @RequestParam(required = false) String token,
+            @RequestParam(defaultValue = "100") int size,
+            @RequestParam(defaultValue = "25") int batchSize) {
+        PerformanceService.ProductPage<PerformanceService.ProductExportRow> page = performanceService.getProducts(strategy, token, size, batchSize);
+        return ResponseEntity.ok(page);
+    }
+    
+    /**
+     * Fetch stratejileri karşılaştırması: statement sayısı ve ortalama gecikme
+     */
+    @GetMapping("/products/compare-fetch-strategies")
+    public ResponseEntity<List<PerformanceService.FetchStrategyMeasurement>> compareFetchStrategies(
+            @RequestParam(defaultValue = "1000") int size,
+            @RequestParam(defaultValue = "25") int batchSize,
+            @RequestParam(defaultValue = "10") int iterations) {
+        List<PerformanceService.FetchStrategyMeasurement> measurements =
+            performanceService.compareFetchStrategies(size, batchSize, iterations);
+        return ResponseEntity.ok(measurements);
+    }
+    
+    /**
+     * DTO projection - entity yüklenmeden listeleme
+     */
+    @GetMapping("/products/views")
+    public ResponseEntity<PerformanceService.ProductPage<ProductView>> getProductViews(
+            @RequestParam(required = false) String token,
+            @RequestParam(defaultValue = "100") int size) {
+        PerformanceService.ProductPage<ProductView> page = performanceService.getProductViews(token, size);
+        return ResponseEntity.ok(page);
+    }
+    
+    /**
+     * DTO projection + Category sözlüğü (join yok)
+     */
+    @GetMapping("/products/views/dictionary")
+    public ResponseEntity<PerformanceService.ProductPage<ProductView>> getProductViewsWithDictionary(
+            @RequestParam(required = false) String token,
+            @RequestParam(defaultValue = "100") int size) {
+        PerformanceService.ProductPage<ProductView> page = performanceService.getProductViewsWithDictionary(token, size);
+        return ResponseEntity.ok(page);
+    }
+    
+    /**
+     * Category oluşturma - sözlük commit sonrası güncellenir
+     */
+    @PostMapping("/categories")
+    public ResponseEntity<Category> createCategory(@RequestParam String name) {
+        Category category = categoryService.createCategory(name);
+        return ResponseEntity.ok(category);
+    }
+    
+    /**
+     * Category adı değiştirme - sözlük commit sonrası güncellenir
+     */
+    @PutMapping("/categories/{id}")
+    public ResponseEntity<Category> renameCategory(@PathVariable Long id, @RequestParam String name) {
+        Category category = categoryService.renameCategory(id, name);
+        return ResponseEntity.ok(category);
+    }
+    
+    /**
+     * Category sözlüğünün anlık içeriği
+     */
+    @GetMapping("/categories/dictionary")
+    public ResponseEntity<Map<Long, String>> getCategoryDictionary() {
+        return ResponseEntity.ok(categoryDictionary.asMap());
+    }
+    
+    /**
+     * Entity fetch join vs DTO projection: ortalama gecikme ve satır başına allocation
+     */
+    @GetMapping("/products/compare-read-paths")
+    public ResponseEntity<List<PerformanceService.ReadPathMeasurement>> compareReadPaths(
+            @RequestParam(defaultValue = "1000") int size,
+            @RequestParam(defaultValue = "20") int iterations) {
+        List<PerformanceService.ReadPathMeasurement> measurements = performanceService.compareReadPaths(size, iterations);
+        return ResponseEntity.ok(measurements);
+    }
+    
+    /**
+     * Streaming export (NDJSON)
+     * Transaction, StreamingResponseBody'nin çalıştığı async thread'de açılır ve yazma bitene kadar sürer
+     */
+    @GetMapping(value = "/products/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportProducts() {
+        StreamingResponseBody body = performanceService::exportProducts;
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(body);
     }
     
     /**
      * Batch insert optimization
      */
     @PostMapping("/batch-insert")
-    public ResponseEntity<String> batchInsert(@RequestParam int count) {
-        performanceService.batchInsertOptimized(count);
-        return ResponseEntity.ok("Batch insert tamamlandı: " + count + " kayıt");
+    public ResponseEntity<PerformanceService.BatchInsertResult> batchInsert(@RequestParam int count) {
+        PerformanceService.BatchInsertResult result = performanceService.batchInsertOptimized(count);
+        return ResponseEntity.ok(result);
+    }
+    
+    /**
+     * Parallel chunked ingest - virtual thread'ler, chunk başına ayrı transaction
+     */
+    @PostMapping("/parallel-insert")
+    public ResponseEntity<PerformanceService.ParallelInsertResult> parallelInsert(
+            @RequestParam int count,
+            @RequestParam(defaultValue = "5000") int chunkSize,
+            @RequestParam(defaultValue = "8") int parallelism) {
+        PerformanceService.ParallelInsertResult result = performanceService.parallelInsert(count, chunkSize, parallelism);
+        return ResponseEntity.ok(result);
+    }
+    
+    /**
+     * Bulk repricing - chunk'lı set-based UPDATE
+     * afterId: yarıda kalan bir çalıştırmaya önceki sonucun lastId'sinden devam etmek için
+     */
+    @PostMapping("/reprice")
+    public ResponseEntity<PerformanceService.RepriceResult> reprice(
+            @RequestParam Long categoryId,
+            @RequestParam double percent,
+            @RequestParam(defaultValue = "10000") int chunkSize,
+            @RequestParam(defaultValue = "0") Long afterId) {
+        PerformanceService.RepriceResult result = performanceService.repriceCategory(categoryId, percent, chunkSize, afterId);
+        return ResponseEntity.ok(result);
+    }
+    
+    /**
+     * Bulk load - PostgreSQL COPY (request body stream olarak okunur)
+     * Body: name,price,stock,category_id satırları (CSV) veya PostgreSQL binary COPY formatı
+     */
+    @PostMapping(value = "/bulk-load", consumes = {"text/csv", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<PerformanceService.BulkLoadResult> bulkLoad(
+            InputStream body,
+            @RequestParam(defaultValue = "CSV") PerformanceService.CopyFormat format,
+            @RequestParam(defaultValue = "false") boolean header) {
+        PerformanceService.BulkLoadResult result = performanceService.bulkLoadWithCopy(body, format, header);
+        return ResponseEntity.ok(result);
     }
 }
 
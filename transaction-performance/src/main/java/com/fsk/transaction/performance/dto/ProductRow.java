@@ -0,0 +1,7 @@
+package com.fsk.transaction.performance.dto;
+
+/**
+ * Category join'i olmadan product satırı: category_id doğrudan products_performance'tan okunur
+ */
+public record ProductRow(Long id, String name, Double price, Long categoryId) {
+}
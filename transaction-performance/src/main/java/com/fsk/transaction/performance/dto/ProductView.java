@@ -0,0 +1,8 @@
+package com.fsk.transaction.performance.dto;
+
+/**
+ * Product listesi için DTO projection (JPQL constructor expression)
+ * Entity değil: persistence context'e girmez, snapshot/proxy oluşturulmaz
+ */
+public record ProductView(Long id, String name, Double price, String categoryName) {
+}
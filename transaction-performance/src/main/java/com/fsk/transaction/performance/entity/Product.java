@@ -7,13 +7,22 @@ import lombok.NoArgsConstructor;
 
 @Entity
 @Table(name = "products_performance")
+@NamedEntityGraph(name = Product.WITH_CATEGORY_GRAPH, attributeNodes = @NamedAttributeNode("category"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Product {
     
+    public static final String WITH_CATEGORY_GRAPH = "Product.withCategory";
+    
+    /**
+     * IDENTITY yerine pooled optimizer'lı SEQUENCE:
+     * IDENTITY'de Hibernate her INSERT'ten sonra id'yi okumak zorunda olduğu için JDBC batching kapanır.
+     * allocationSize = 50 ile tek sequence çağrısı 50 id ayırır (hibernate.jdbc.batch_size ile aynı).
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_performance_seq")
+    @SequenceGenerator(name = "products_performance_seq", sequenceName = "products_performance_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -29,20 +38,3 @@ public class Product {
     private Category category;
 }
 
-@Entity
-@Table(name = "categories")
-@Data
-@NoArgsConstructor
-@AllArgsConstructor
-class Category {
-    
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
-    
-    @Column(nullable = false)
-    private String name;
-}
-
-
-
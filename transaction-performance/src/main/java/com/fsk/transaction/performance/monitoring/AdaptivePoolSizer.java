@@ -0,0 +1,112 @@
+package com.fsk.transaction.performance.monitoring;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hikari maximumPoolSize'ı gözlenen bekleme sürelerine göre min-size / max-size sınırları içinde ayarlar.
+ *
+ * Her interval'de son pencerenin ortalama acquire süresine bakılır:
+ * - ortalama > target-acquire-time veya connection bekleyen thread varsa: max += step
+ * - calm-windows boyunca ortalama < target / 4 ve en az step kadar idle connection varsa: max -= step
+ *
+ * Pool'u büyütmek her zaman çözüm değildir: veritabanı CPU/IO'ya doymuşsa daha fazla connection
+ * sadece kuyruğu veritabanına taşır. Sınırlar bu yüzden dar tutulmalı.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "performance.pool.adaptive.enabled", havingValue = "true")
+public class AdaptivePoolSizer {
+    
+    private final ConnectionPoolMonitor connectionPoolMonitor;
+    private final int minSize;
+    private final int maxSize;
+    private final int step;
+    private final Duration targetAcquireTime;
+    private final int calmWindows;
+    
+    private final Map<String, Window> windows = new HashMap<>();
+    
+    public AdaptivePoolSizer(ConnectionPoolMonitor connectionPoolMonitor,
+                             @Value("${performance.pool.adaptive.min-size}") int minSize,
+                             @Value("${performance.pool.adaptive.max-size}") int maxSize,
+                             @Value("${performance.pool.adaptive.step:2}") int step,
+                             @Value("${performance.pool.adaptive.target-acquire-time:5ms}") Duration targetAcquireTime,
+                             @Value("${performance.pool.adaptive.calm-windows:3}") int calmWindows) {
+        if (minSize < 1 || maxSize < minSize) {
+            throw new IllegalArgumentException("Geçersiz pool sınırları: min-size=" + minSize + ", max-size=" + maxSize);
+        }
+        this.connectionPoolMonitor = connectionPoolMonitor;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.step = Math.max(1, step);
+        this.targetAcquireTime = targetAcquireTime;
+        this.calmWindows = calmWindows;
+    }
+    
+    @Scheduled(fixedDelayString = "${performance.pool.adaptive.interval:10s}")
+    public void adjust() {
+        for (HikariDataSource dataSource : connectionPoolMonitor.getDataSources()) {
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            Timer acquireTimer = connectionPoolMonitor.acquireTimer(dataSource.getPoolName());
+            if (pool != null && acquireTimer != null) {
+                adjust(dataSource.getPoolName(), dataSource.getHikariConfigMXBean(), pool, acquireTimer);
+            }
+        }
+    }
+    
+    private void adjust(String poolName, HikariConfigMXBean config, HikariPoolMXBean pool, Timer acquireTimer) {
+        Window window = windows.computeIfAbsent(poolName, name -> new Window());
+        long count = acquireTimer.count();
+        double totalNanos = acquireTimer.totalTime(TimeUnit.NANOSECONDS);
+        long acquisitions = count - window.lastCount;
+        double meanNanos = acquisitions > 0 ? (totalNanos - window.lastTotalNanos) / acquisitions : 0;
+        window.lastCount = count;
+        window.lastTotalNanos = totalNanos;
+        
+        int current = config.getMaximumPoolSize();
+        int pending = pool.getThreadsAwaitingConnection();
+        double targetNanos = targetAcquireTime.toNanos();
+        
+        int target = current;
+        if (meanNanos > targetNanos || pending > 0) {
+            window.calm = 0;
+            target = Math.min(maxSize, current + step);
+        } else if (meanNanos < targetNanos / 4 && pool.getIdleConnections() >= step) {
+            window.calm++;
+            if (window.calm >= calmWindows) {
+                window.calm = 0;
+                target = Math.max(minSize, current - step);
+            }
+        } else {
+            window.calm = 0;
+        }
+        
+        if (target != current) {
+            if (config.getMinimumIdle() > target) {
+                config.setMinimumIdle(target);
+            }
+            config.setMaximumPoolSize(target);
+            log.info("Pool {} maximumPoolSize {} -> {} (ortalama acquire {} ms, bekleyen {})",
+                poolName, current, target, String.format("%.2f", meanNanos / 1_000_000), pending);
+        }
+    }
+    
+    private static final class Window {
+        private long lastCount;
+        private double lastTotalNanos;
+        private int calm;
+    }
+}
@@ -0,0 +1,24 @@
+package com.fsk.transaction.performance.monitoring;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * GET /actuator/connectionpool - pool başına active/idle/pending, acquire ve usage süre dağılımı
+ */
+@Component
+@Endpoint(id = "connectionpool")
+@RequiredArgsConstructor
+public class ConnectionPoolEndpoint {
+    
+    private final ConnectionPoolMonitor connectionPoolMonitor;
+    
+    @ReadOperation
+    public List<ConnectionPoolMonitor.PoolSnapshot> pools() {
+        return connectionPoolMonitor.snapshot();
+    }
+}
@@ -0,0 +1,104 @@
+package com.fsk.transaction.performance.monitoring;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hikari pool'larının anlık durumu: active / idle / pending ve
+ * connection acquire / usage süreleri (Micrometer hikaricp.connections.acquire / .usage timer'ları)
+ *
+ * Percentile'lar için application.properties'te
+ * management.metrics.distribution.percentiles.hikaricp.connections.* açık olmalı.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConnectionPoolMonitor {
+    
+    static final String ACQUIRE_TIMER = "hikaricp.connections.acquire";
+    static final String USAGE_TIMER = "hikaricp.connections.usage";
+    
+    private final List<HikariDataSource> dataSources;
+    private final MeterRegistry meterRegistry;
+    
+    public List<PoolSnapshot> snapshot() {
+        return dataSources.stream()
+            .filter(dataSource -> dataSource.getHikariPoolMXBean() != null)
+            .map(this::snapshot)
+            .toList();
+    }
+    
+    /**
+     * Yazma yapılan (read-only olmayan) pool'un anlık maximumPoolSize değeri
+     */
+    public int writePoolMaximumSize() {
+        return dataSources.stream()
+            .filter(dataSource -> !dataSource.isReadOnly())
+            .mapToInt(dataSource -> dataSource.getHikariConfigMXBean().getMaximumPoolSize())
+            .max()
+            .orElse(1);
+    }
+    
+    List<HikariDataSource> getDataSources() {
+        return dataSources;
+    }
+    
+    Timer acquireTimer(String poolName) {
+        return meterRegistry.find(ACQUIRE_TIMER).tag("pool", poolName).timer();
+    }
+    
+    private PoolSnapshot snapshot(HikariDataSource dataSource) {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        String poolName = dataSource.getPoolName();
+        return new PoolSnapshot(
+            poolName,
+            pool.getActiveConnections(),
+            pool.getIdleConnections(),
+            pool.getThreadsAwaitingConnection(),
+            pool.getTotalConnections(),
+            dataSource.getHikariConfigMXBean().getMinimumIdle(),
+            dataSource.getHikariConfigMXBean().getMaximumPoolSize(),
+            TimerSummary.of(acquireTimer(poolName)),
+            TimerSummary.of(meterRegistry.find(USAGE_TIMER).tag("pool", poolName).timer()));
+    }
+    
+    public record PoolSnapshot(String pool, int active, int idle, int pending, int total,
+                               int minimumIdle, int maximumPoolSize,
+                               TimerSummary acquireTime, TimerSummary usageTime) {}
+    
+    /**
+     * Süreler milisaniye
+     */
+    public record TimerSummary(long count, double meanMillis, double maxMillis, double p50Millis, double p95Millis, double p99Millis) {
+        
+        static TimerSummary of(Timer timer) {
+            if (timer == null) {
+                return null;
+            }
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            return new TimerSummary(snapshot.count(),
+                snapshot.mean(TimeUnit.MILLISECONDS),
+                snapshot.max(TimeUnit.MILLISECONDS),
+                percentile(snapshot, 0.5),
+                percentile(snapshot, 0.95),
+                percentile(snapshot, 0.99));
+        }
+        
+        private static double percentile(HistogramSnapshot snapshot, double percentile) {
+            for (ValueAtPercentile value : snapshot.percentileValues()) {
+                if (value.percentile() == percentile) {
+                    return value.value(TimeUnit.MILLISECONDS);
+                }
+            }
+            return Double.NaN;
+        }
+    }
+}
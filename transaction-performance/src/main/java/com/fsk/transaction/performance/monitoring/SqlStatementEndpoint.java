@@ -0,0 +1,32 @@
+package com.fsk.transaction.performance.monitoring;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * GET /actuator/sqlstatements - request ve transaction başına statement sayıları, N+1 şüpheleri
+ * DELETE /actuator/sqlstatements - load test koşuları arasında sıfırlamak için
+ * performance.sql-tracking.enabled=true değilse endpoint yoktur
+ */
+@Component
+@Endpoint(id = "sqlstatements")
+@ConditionalOnProperty(name = "performance.sql-tracking.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class SqlStatementEndpoint {
+    
+    private final SqlStatementTracker tracker;
+    
+    @ReadOperation
+    public SqlStatementTracker.Snapshot statements() {
+        return tracker.snapshot();
+    }
+    
+    @DeleteOperation
+    public void reset() {
+        tracker.reset();
+    }
+}
@@ -0,0 +1,37 @@
+package com.fsk.transaction.performance.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Her HTTP request için statement sayacını açar ve request bitince istatistiklere ekler.
+ * İstatistik anahtarı URI değil endpoint pattern'idir (/api/performance/products/fetch-join gibi).
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "performance.sql-tracking.enabled", havingValue = "true")
+public class SqlStatementFilter extends OncePerRequestFilter {
+    
+    private final SqlStatementTracker tracker;
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        tracker.beginRequest();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            tracker.completeRequest(request.getMethod() + " " + (pattern != null ? pattern : "UNMAPPED"));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.fsk.transaction.performance.monitoring;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Statement sayılarını response header'larına yazar.
+ * Header'lar body yazılmadan hemen önce eklenir; body serialize edilirken (open-in-view) çalışan sorgular
+ * header'a girmez ama actuator endpoint'indeki request istatistiklerine girer.
+ */
+@ControllerAdvice
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "performance.sql-tracking.enabled", havingValue = "true")
+public class SqlStatementHeaderAdvice implements ResponseBodyAdvice<Object> {
+    
+    public static final String STATEMENT_COUNT_HEADER = "X-Sql-Statement-Count";
+    public static final String REPEATED_QUERIES_HEADER = "X-Sql-Repeated-Queries";
+    
+    private final SqlStatementTracker tracker;
+    
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+    
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        SqlStatementTracker.StatementScope scope = tracker.currentRequest();
+        if (scope != null) {
+            response.getHeaders().set(STATEMENT_COUNT_HEADER, String.valueOf(scope.getTotal()));
+            response.getHeaders().set(REPEATED_QUERIES_HEADER,
+                String.valueOf(scope.repeatedSelects(tracker.getNPlusOneThreshold()).size()));
+        }
+        return body;
+    }
+}
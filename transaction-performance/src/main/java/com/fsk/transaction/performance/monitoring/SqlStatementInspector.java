@@ -0,0 +1,19 @@
+package com.fsk.transaction.performance.monitoring;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate'in hazırladığı her SQL'i SqlStatementTracker'a bildirir, SQL'i değiştirmez
+ */
+@RequiredArgsConstructor
+public class SqlStatementInspector implements StatementInspector {
+    
+    private final SqlStatementTracker tracker;
+    
+    @Override
+    public String inspect(String sql) {
+        tracker.record(sql);
+        return sql;
+    }
+}
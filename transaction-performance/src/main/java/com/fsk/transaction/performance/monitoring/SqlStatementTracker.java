@@ -0,0 +1,241 @@
+package com.fsk.transaction.performance.monitoring;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * SQL statement sayacı ve N+1 dedektörü
+ *
+ * Hibernate'in çalıştırdığı her statement (SqlStatementInspector üzerinden) iki scope'a sayılır:
+ * - HTTP request (SqlStatementFilter thread'e bağlar)
+ * - @Transactional sınırı (TransactionSynchronization ile transaction'a bağlanır)
+ *
+ * Aynı scope içinde aynı şekle sahip SELECT threshold kadar tekrar ederse N+1 şüphesi olarak işaretlenir.
+ * Örnek: getProductsWithNPlusOneProblem'deki lazy category yüklemeleri.
+ *
+ * Sayaç sadece performance.sql-tracking.enabled=true iken beslenir (inspector ve filter o zaman kayıtlıdır).
+ */
+@Component
+@Slf4j
+public class SqlStatementTracker {
+    
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+\\b");
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\?(?:\\s*,\\s*\\?)+\\)");
+    
+    private static final int MAX_SUSPECTS = 100;
+    
+    private final ThreadLocal<StatementScope> requestScope = new ThreadLocal<>();
+    
+    private final Map<String, ScopeStatistics> requestStatistics = new ConcurrentHashMap<>();
+    private final Map<String, ScopeStatistics> transactionStatistics = new ConcurrentHashMap<>();
+    private final Map<String, NPlusOneSuspect> suspects = new ConcurrentHashMap<>();
+    
+    private final int nPlusOneThreshold;
+    private final boolean enabled;
+    
+    public SqlStatementTracker(@Value("${performance.sql.n-plus-one-threshold:5}") int nPlusOneThreshold,
+                               @Value("${performance.sql-tracking.enabled:false}") boolean enabled) {
+        this.nPlusOneThreshold = nPlusOneThreshold;
+        this.enabled = enabled;
+    }
+    
+    /**
+     * SqlStatementInspector her statement hazırlanırken çağırır
+     */
+    void record(String sql) {
+        String shape = shapeOf(sql);
+        
+        StatementScope request = requestScope.get();
+        if (request != null) {
+            request.record(shape);
+        }
+        
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            currentTransactionScope().record(shape);
+        }
+    }
+    
+    void beginRequest() {
+        requestScope.set(new StatementScope());
+    }
+    
+    /**
+     * Response header'ları için o ana kadarki request sayacı
+     */
+    StatementScope currentRequest() {
+        return requestScope.get();
+    }
+    
+    void completeRequest(String name) {
+        StatementScope scope = requestScope.get();
+        requestScope.remove();
+        if (scope != null) {
+            complete("request", name, scope, requestStatistics);
+        }
+    }
+    
+    /**
+     * Aktif transaction içinde şu ana kadar çalışan statement sayısı (transaction yoksa 0)
+     */
+    public int currentTransactionStatementCount() {
+        StatementScope scope = (StatementScope) TransactionSynchronizationManager.getResource(this);
+        return scope != null ? scope.getTotal() : 0;
+    }
+    
+    /**
+     * false ise statement'lar sayılmaz, currentTransactionStatementCount her zaman 0'dır
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    int getNPlusOneThreshold() {
+        return nPlusOneThreshold;
+    }
+    
+    public Snapshot snapshot() {
+        List<NPlusOneSuspect> suspectList = new ArrayList<>(suspects.values());
+        suspectList.sort((a, b) -> Long.compare(b.maxRepetitions(), a.maxRepetitions()));
+        return new Snapshot(nPlusOneThreshold, toView(requestStatistics), toView(transactionStatistics), suspectList);
+    }
+    
+    public void reset() {
+        requestStatistics.clear();
+        transactionStatistics.clear();
+        suspects.clear();
+    }
+    
+    private StatementScope currentTransactionScope() {
+        StatementScope scope = (StatementScope) TransactionSynchronizationManager.getResource(this);
+        if (scope != null) {
+            return scope;
+        }
+        
+        StatementScope newScope = new StatementScope();
+        String name = TransactionSynchronizationManager.getCurrentTransactionName();
+        TransactionSynchronizationManager.bindResource(this, newScope);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            
+            // REQUIRES_NEW ile askıya alınan transaction'ın sayacı iç transaction'a karışmasın
+            @Override
+            public void suspend() {
+                TransactionSynchronizationManager.unbindResource(SqlStatementTracker.this);
+            }
+            
+            @Override
+            public void resume() {
+                TransactionSynchronizationManager.bindResource(SqlStatementTracker.this, newScope);
+            }
+            
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(SqlStatementTracker.this);
+                complete("transaction", name != null ? name : "unnamed", newScope, transactionStatistics);
+            }
+        });
+        return newScope;
+    }
+    
+    private void complete(String kind, String name, StatementScope scope, Map<String, ScopeStatistics> statistics) {
+        statistics.computeIfAbsent(name, key -> new ScopeStatistics()).add(scope.getTotal());
+        
+        scope.repeatedSelects(nPlusOneThreshold).forEach((shape, repetitions) -> {
+            log.warn("Olası N+1: {} '{}' içinde aynı sorgu {} kez çalıştı: {}", kind, name, repetitions, shape);
+            if (suspects.size() < MAX_SUSPECTS || suspects.containsKey(shape)) {
+                suspects.merge(shape, new NPlusOneSuspect(shape, kind + " " + name, repetitions, 1, Instant.now()),
+                    (existing, latest) -> new NPlusOneSuspect(shape, latest.lastScope(),
+                        Math.max(existing.maxRepetitions(), latest.maxRepetitions()),
+                        existing.occurrences() + 1, latest.lastSeen()));
+            }
+        });
+    }
+    
+    private static Map<String, ScopeStatisticsView> toView(Map<String, ScopeStatistics> statistics) {
+        Map<String, ScopeStatisticsView> view = new TreeMap<>();
+        statistics.forEach((name, stats) -> view.put(name, stats.toView()));
+        return view;
+    }
+    
+    /**
+     * Parametre değerleri ve IN listesi uzunluğu farklı olsa da aynı sorgu aynı şekle düşer
+     */
+    static String shapeOf(String sql) {
+        String shape = WHITESPACE.matcher(sql).replaceAll(" ").trim();
+        shape = STRING_LITERAL.matcher(shape).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        return IN_LIST.matcher(shape).replaceAll("(?)");
+    }
+    
+    /**
+     * Tek bir request veya transaction içindeki statement'lar (tek thread'e bağlı, senkronizasyon gerekmez)
+     */
+    static final class StatementScope {
+        
+        private final Map<String, Integer> shapes = new HashMap<>();
+        private int total;
+        
+        void record(String shape) {
+            total++;
+            shapes.merge(shape, 1, Integer::sum);
+        }
+        
+        int getTotal() {
+            return total;
+        }
+        
+        /**
+         * Sadece SELECT'ler: batch INSERT'ler ve sequence çağrıları (nextval) da tekrar eder ama N+1 değildir
+         */
+        Map<String, Integer> repeatedSelects(int threshold) {
+            Map<String, Integer> repeated = new HashMap<>();
+            shapes.forEach((shape, count) -> {
+                String lower = shape.toLowerCase();
+                if (count >= threshold && lower.startsWith("select") && !lower.contains("nextval(")) {
+                    repeated.put(shape, count);
+                }
+            });
+            return repeated;
+        }
+    }
+    
+    private static final class ScopeStatistics {
+        
+        private final AtomicLong invocations = new AtomicLong();
+        private final AtomicLong statements = new AtomicLong();
+        private final AtomicLong maxStatements = new AtomicLong();
+        
+        void add(int count) {
+            invocations.incrementAndGet();
+            statements.addAndGet(count);
+            maxStatements.accumulateAndGet(count, Math::max);
+        }
+        
+        ScopeStatisticsView toView() {
+            return new ScopeStatisticsView(invocations.get(), statements.get(), maxStatements.get());
+        }
+    }
+    
+    public record ScopeStatisticsView(long invocations, long statements, long maxStatements) {}
+    
+    public record NPlusOneSuspect(String sql, String lastScope, long maxRepetitions, long occurrences, Instant lastSeen) {}
+    
+    public record Snapshot(int nPlusOneThreshold,
+                           Map<String, ScopeStatisticsView> requests,
+                           Map<String, ScopeStatisticsView> transactions,
+                           List<NPlusOneSuspect> nPlusOneSuspects) {}
+}
@@ -0,0 +1,23 @@
+package com.fsk.transaction.performance.repository;
+
+import com.fsk.transaction.performance.entity.Category;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CategoryRepository extends JpaRepository<Category, Long> {
+    
+    /**
+     * Subselect fetch: sayfayı getiren sorgunun kısıtı subquery olarak tekrar kullanılır,
+     * sayfadaki tüm category'ler tek sorguda yüklenir
+     */
+    @Query("""
+        SELECT c FROM Category c
+        WHERE c.id IN (SELECT p.category.id FROM Product p WHERE p.id > :afterId AND p.id <= :lastId)
+        """)
+    List<Category> findByProductIdRange(@Param("afterId") Long afterId, @Param("lastId") Long lastId);
+}
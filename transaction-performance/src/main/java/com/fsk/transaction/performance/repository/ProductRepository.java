@@ -1,7 +1,12 @@
 package com.fsk.transaction.performance.repository;
 
+import com.fsk.transaction.performance.dto.ProductRow;
+import com.fsk.transaction.performance.dto.ProductView;
 import com.fsk.transaction.performance.entity.Product;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -13,6 +18,73 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     
     @Query("SELECT p FROM Product p JOIN FETCH p.category")
     List<Product> findAllWithCategory();
+    
+    /**
+     * Keyset pagination: OFFSET yerine son görülen id'den devam edilir,
+     * böylece sayfa maliyeti tablonun boyutundan bağımsızdır (PK index üzerinde range scan)
+     */
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+    
+    /**
+     * Entity graph: JPQL'de JOIN FETCH yazmadan category aynı sorguda (LEFT JOIN) yüklenir
+     */
+    @EntityGraph(Product.WITH_CATEGORY_GRAPH)
+    List<Product> findWithCategoryGraphByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+    
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.id > :afterId ORDER BY p.id")
+    List<Product> findPageWithCategory(@Param("afterId") Long afterId, Limit limit);
+    
+    /**
+     * DTO projection: sadece gereken kolonlar seçilir, entity yüklenmez
+     */
+    @Query("""
+        SELECT new com.fsk.transaction.performance.dto.ProductView(p.id, p.name, p.price, c.name)
+        FROM Product p LEFT JOIN p.category c
+        WHERE p.id > :afterId
+        ORDER BY p.id
+        """)
+    List<ProductView> findViewPage(@Param("afterId") Long afterId, Limit limit);
+    
+    /**
+     * Join'siz projection: p.category.id FK kolonundan okunur, categories tablosuna gidilmez
+     */
+    @Query("""
+        SELECT new com.fsk.transaction.performance.dto.ProductRow(p.id, p.name, p.price, p.category.id)
+        FROM Product p
+        WHERE p.id > :afterId
+        ORDER BY p.id
+        """)
+    List<ProductRow> findRowPage(@Param("afterId") Long afterId, Limit limit);
+    
+    /**
+     * Bulk repricing chunk sınırı: afterId'den sonraki en fazla :limit kaydın en büyük id'si
+     */
+    @Query(value = """
+        SELECT max(id) FROM (
+            SELECT id FROM products_performance
+            WHERE category_id = :categoryId AND id > :afterId
+            ORDER BY id
+            LIMIT :limit
+        ) chunk
+        """, nativeQuery = true)
+    Long findRepriceChunkUpperBound(@Param("categoryId") Long categoryId,
+                                    @Param("afterId") Long afterId,
+                                    @Param("limit") int limit);
+    
+    /**
+     * Set-based UPDATE: entity yüklenmez, tek statement ile id aralığındaki tüm satırlar güncellenir.
+     * Bulk UPDATE persistence context'i bypass eder; önce bekleyen değişiklikler flush edilir,
+     * sonra context temizlenir ki eski fiyatlı entity'ler okunmasın.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        UPDATE Product p SET p.price = p.price * :factor
+        WHERE p.category.id = :categoryId AND p.id > :afterId AND p.id <= :lastId
+        """)
+    int updatePriceInRange(@Param("categoryId") Long categoryId,
+                           @Param("factor") double factor,
+                           @Param("afterId") Long afterId,
+                           @Param("lastId") Long lastId);
 }
 
 
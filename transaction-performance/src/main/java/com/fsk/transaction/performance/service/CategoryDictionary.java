@@ -0,0 +1,71 @@
+package com.fsk.transaction.performance.service;
+
+import com.fsk.transaction.performance.entity.Category;
+import com.fsk.transaction.performance.repository.CategoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable, copy-on-write Category sözlüğü (id -> name)
+ *
+ * Category'ler az ve nadiren değişir; product okumalarında join veya lazy load yerine buradan çözülür.
+ * Okuyucular kilitsiz okur: map hiç değişmez, değişiklikte yeni bir kopya oluşturulup referans atomik olarak değiştirilir.
+ * Değişiklikler sadece transaction commit olduktan sonra uygulanır (AFTER_COMMIT), rollback olan değişiklik görünmez.
+ * Yazanlar (reload ve değişiklik event'leri) birbirine karşı senkronizedir.
+ *
+ * Bu uygulama dışından (SQL ile) yapılan değişiklikler reload() çağrılana kadar görünmez.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CategoryDictionary {
+    
+    private final CategoryRepository categoryRepository;
+    
+    private volatile Map<Long, String> names = Map.of();
+    
+    /**
+     * handleCategoryChanged ile aynı kilit: okuma sürerken commit olan bir değişiklik eski snapshot ile ezilmez
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reload() {
+        Map<Long, String> loaded = categoryRepository.findAll().stream()
+            .collect(Collectors.toUnmodifiableMap(Category::getId, Category::getName));
+        names = loaded;
+        log.info("Category sözlüğü yüklendi: {} kayıt", loaded.size());
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public synchronized void handleCategoryChanged(CategoryChangedEvent event) {
+        Map<Long, String> copy = new HashMap<>(names);
+        if (event.name() != null) {
+            copy.put(event.categoryId(), event.name());
+        } else {
+            copy.remove(event.categoryId());
+        }
+        names = Map.copyOf(copy);
+        log.info("Category sözlüğü güncellendi: {} -> {}", event.categoryId(), event.name());
+    }
+    
+    public String nameOf(Long categoryId) {
+        return categoryId != null ? names.get(categoryId) : null;
+    }
+    
+    public Map<Long, String> asMap() {
+        return names;
+    }
+    
+    /**
+     * name == null: category silindi
+     */
+    public record CategoryChangedEvent(Long categoryId, String name) {}
+}
@@ -0,0 +1,46 @@
+package com.fsk.transaction.performance.service;
+
+import com.fsk.transaction.performance.entity.Category;
+import com.fsk.transaction.performance.repository.CategoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Category yazma işlemleri
+ * Her değişiklik CategoryChangedEvent yayınlar; CategoryDictionary bunu commit sonrası uygular.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CategoryService {
+    
+    private final CategoryRepository categoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @Transactional
+    public Category createCategory(String name) {
+        log.info("createCategory - {}", name);
+        
+        Category category = new Category();
+        category.setName(name);
+        Category saved = categoryRepository.save(category);
+        
+        eventPublisher.publishEvent(new CategoryDictionary.CategoryChangedEvent(saved.getId(), saved.getName()));
+        return saved;
+    }
+    
+    @Transactional
+    public Category renameCategory(Long id, String name) {
+        log.info("renameCategory - {} -> {}", id, name);
+        
+        Category category = categoryRepository.findById(id)
+            .orElseThrow(() -> new RuntimeException("Category bulunamadı"));
+        category.setName(name);
+        
+        eventPublisher.publishEvent(new CategoryDictionary.CategoryChangedEvent(category.getId(), name));
+        return category;
+    }
+}
@@ -1,15 +1,55 @@
 package com.fsk.transaction.performance.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fsk.transaction.performance.dto.ProductView;
+import com.fsk.transaction.performance.entity.Category;
 import com.fsk.transaction.performance.entity.Product;
+import com.fsk.transaction.performance.monitoring.ConnectionPoolMonitor;
+import com.fsk.transaction.performance.monitoring.SqlStatementTracker;
+import com.fsk.transaction.performance.repository.CategoryRepository;
 import com.fsk.transaction.performance.repository.ProductRepository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceUnitUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.Hibernate;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.BufferedOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
 
 /**
  * Transaction + Performance Konuları
@@ -24,7 +64,22 @@ import java.util.List;
 @Slf4j
 public class PerformanceService {
     
+    /**
+     * hibernate.jdbc.batch_size ve Product sequence allocationSize ile aynı olmalı
+     */
+    static final int BATCH_SIZE = 50;
+    
+    static final int MAX_PAGE_SIZE = 1000;
+    
+    static final int EXPORT_FETCH_SIZE = 1000;
+    
     private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final SqlStatementTracker sqlStatementTracker;
+    private final ConnectionPoolMonitor connectionPoolMonitor;
+    private final CategoryDictionary categoryDictionary;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
     
     @PersistenceContext
     private EntityManager entityManager;
@@ -32,64 +87,597 @@ public class PerformanceService {
     /**
      * N+1 Problem - YANLIŞ
      * Her product için ayrı category sorgusu
+     * Keyset pagination ile sayfa başına en fazla MAX_PAGE_SIZE kayıt yüklenir
      */
     @Transactional(readOnly = true)
-    public List<Product> getProductsWithNPlusOneProblem() {
+    public ProductPage<Product> getProductsWithNPlusOneProblem(String token, int size) {
         log.info("getProductsWithNPlusOneProblem - N+1 Problem");
         
-        List<Product> products = productRepository.findAll();
+        int pageSize = clampPageSize(size);
+        List<Product> products = productRepository.findByIdGreaterThanOrderByIdAsc(
+            ProductPage.decodeToken(token), Limit.of(pageSize + 1));
         
         // N+1 Problem: Her product için category lazy load edilir
         products.forEach(product -> {
-            log.info("Product: {}, Category: {}", product.getName(), product.getCategory().getName());
+            log.info("Product: {}, Category: {}", product.getName(),
+                product.getCategory() != null ? product.getCategory().getName() : null);
         });
         
-        return products;
+        return ProductPage.of(products, pageSize, Product::getId);
     }
     
     /**
      * N+1 Problem - ÇÖZÜM: Fetch Join
+     * Keyset pagination: WHERE id > :afterId ORDER BY id LIMIT :size
      */
     @Transactional(readOnly = true)
-    public List<Product> getProductsWithFetchJoin() {
+    public ProductPage<Product> getProductsWithFetchJoin(String token, int size) {
         log.info("getProductsWithFetchJoin - Fetch Join ile N+1 çözümü");
         
         // Fetch join ile tek sorguda category'ler de yüklenir
-        List<Product> products = productRepository.findAllWithCategory();
+        int pageSize = clampPageSize(size);
+        List<Product> products = productRepository.findPageWithCategory(
+            ProductPage.decodeToken(token), Limit.of(pageSize + 1));
         
         products.forEach(product -> {
-            log.info("Product: {}, Category: {}", product.getName(), product.getCategory().getName());
+            log.info("Product: {}, Category: {}", product.getName(),
+                product.getCategory() != null ? product.getCategory().getName() : null);
         });
         
+        return ProductPage.of(products, pageSize, Product::getId);
+    }
+    
+    /**
+     * Streaming export (NDJSON) - server-side cursor
+     * ScrollableResults FORWARD_ONLY + fetch size: PostgreSQL sonuçları EXPORT_FETCH_SIZE'lık parçalar halinde gönderir
+     * (fetch size sadece autocommit=false iken, yani transaction içinde çalışır).
+     * Her satır yazıldıktan sonra entity detach edilir, persistence context büyümez: bellek kullanımı sabit kalır.
+     * Transaction read-only olduğu için flush ve dirty checking yapılmaz.
+     */
+    @Transactional(readOnly = true)
+    public void exportProducts(OutputStream output) throws IOException {
+        log.info("exportProducts - ScrollableResults ile NDJSON export");
+        
+        Session session = entityManager.unwrap(Session.class);
+        OutputStream out = new BufferedOutputStream(output, 64 * 1024);
+        long exported = 0;
+        
+        try (ScrollableResults<Product> results = session
+                .createSelectionQuery("SELECT p FROM Product p LEFT JOIN FETCH p.category ORDER BY p.id", Product.class)
+                .setReadOnly(true)
+                .setFetchSize(EXPORT_FETCH_SIZE)
+                .setCacheMode(CacheMode.IGNORE)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+            
+            while (results.next()) {
+                Product product = results.get();
+                out.write(objectMapper.writeValueAsBytes(ProductExportRow.from(product)));
+                out.write('\n');
+                
+                session.detach(product);
+                exported++;
+            }
+        }
+        out.flush();
+        log.info("Export tamamlandı: {} kayıt", exported);
+    }
+    
+    /**
+     * Category için fetch stratejisi çağrı bazında seçilir
+     * Büyük sayfalarda join fetch her satırda category kolonlarını tekrar taşır;
+     * batch/subselect fetch ise category'leri ayrı, IN-list'li az sayıda sorguda yükler.
+     * Sayfa transaction içinde ProductExportRow'a çevrilir: LAZY/BATCH_FETCH/SUBSELECT'te category initialize edilse de
+     * Hibernate proxy'si olarak kalır ve Jackson onu serialize edemez.
+     */
+    @Transactional(readOnly = true)
+    public ProductPage<ProductExportRow> getProducts(FetchStrategy strategy, String token, int size, int batchSize) {
+        log.info("getProducts - Fetch stratejisi: {}", strategy);
+        
+        int pageSize = clampPageSize(size);
+        List<Product> products = loadPage(strategy, ProductPage.decodeToken(token), pageSize + 1, batchSize);
+        
+        products.forEach(product -> {
+            log.debug("Product: {}, Category: {}", product.getName(),
+                product.getCategory() != null ? product.getCategory().getName() : null);
+        });
+        
+        List<ProductExportRow> rows = products.stream().map(ProductExportRow::from).toList();
+        return ProductPage.of(rows, pageSize, ProductExportRow::id);
+    }
+    
+    /**
+     * Her strateji aynı sayfa üzerinde kendi read-only transaction'ında çalıştırılır;
+     * statement sayısı (sql-tracking kapalıysa null) ve ortalama gecikme döner
+     */
+    public List<FetchStrategyMeasurement> compareFetchStrategies(int size, int batchSize, int iterations) {
+        log.info("compareFetchStrategies - size={}, batchSize={}, iterations={}", size, batchSize, iterations);
+        
+        int pageSize = clampPageSize(size);
+        TransactionTemplate readOnlyTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTemplate.setReadOnly(true);
+        
+        List<FetchStrategyMeasurement> measurements = new ArrayList<>();
+        for (FetchStrategy strategy : FetchStrategy.values()) {
+            readOnlyTemplate.setName("fetch-strategy:" + strategy);
+            long totalNanos = 0;
+            int rows = 0;
+            Integer statements = null;
+            for (int i = 0; i < iterations; i++) {
+                long start = System.nanoTime();
+                int[] result = readOnlyTemplate.execute(status -> {
+                    List<Product> products = loadPage(strategy, 0L, pageSize, batchSize);
+                    return new int[] {products.size(), sqlStatementTracker.currentTransactionStatementCount()};
+                });
+                totalNanos += System.nanoTime() - start;
+                rows = result[0];
+                statements = sqlStatementTracker.isEnabled() ? result[1] : null;
+            }
+            measurements.add(new FetchStrategyMeasurement(strategy, rows, statements,
+                TimeUnit.NANOSECONDS.toMicros(totalNanos / Math.max(1, iterations))));
+        }
+        
+        measurements.forEach(m -> log.info("{}: {} satır, {} statement, ortalama {} µs",
+            m.strategy(), m.rows(), m.statements(), m.avgMicros()));
+        return measurements;
+    }
+    
+    /**
+     * Sayfayı seçilen stratejiyle yükler; dönen listede category'ler initialize edilmiş olur
+     */
+    private List<Product> loadPage(FetchStrategy strategy, Long afterId, int limit, int batchSize) {
+        List<Product> products = switch (strategy) {
+            case JOIN_FETCH -> productRepository.findPageWithCategory(afterId, Limit.of(limit));
+            case ENTITY_GRAPH -> productRepository.findWithCategoryGraphByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit));
+            case LAZY, BATCH_FETCH, SUBSELECT -> productRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit));
+        };
+        
+        if (strategy == FetchStrategy.BATCH_FETCH) {
+            // Proxy'lerden id okumak onları initialize etmez
+            PersistenceUnitUtil unitUtil = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+            List<Object> categoryIds = products.stream()
+                .map(Product::getCategory)
+                .filter(Objects::nonNull)
+                .map(unitUtil::getIdentifier)
+                .distinct()
+                .toList();
+            entityManager.unwrap(Session.class)
+                .byMultipleIds(Category.class)
+                .withBatchSize(Math.max(1, batchSize))
+                .multiLoad(categoryIds);
+        } else if (strategy == FetchStrategy.SUBSELECT && !products.isEmpty()) {
+            categoryRepository.findByProductIdRange(afterId, products.getLast().getId());
+        }
+        
+        // LAZY için burada N+1 oluşur; diğer stratejilerde category'ler zaten persistence context'tedir
+        products.forEach(product -> Hibernate.initialize(product.getCategory()));
         return products;
     }
     
+    /**
+     * DTO projection - entity yerine ProductView
+     * Dirty-check snapshot'ı, proxy ve persistence context kaydı yok; sadece 4 kolon okunur
+     */
+    @Transactional(readOnly = true)
+    public ProductPage<ProductView> getProductViews(String token, int size) {
+        log.info("getProductViews - DTO projection");
+        
+        int pageSize = clampPageSize(size);
+        List<ProductView> views = productRepository.findViewPage(
+            ProductPage.decodeToken(token), Limit.of(pageSize + 1));
+        
+        return ProductPage.of(views, pageSize, ProductView::id);
+    }
+    
+    /**
+     * DTO projection + Category sözlüğü
+     * Sorgu sadece products_performance'a gider; category adı bellekteki immutable sözlükten çözülür
+     */
+    @Transactional(readOnly = true)
+    public ProductPage<ProductView> getProductViewsWithDictionary(String token, int size) {
+        log.info("getProductViewsWithDictionary - Join'siz projection + Category sözlüğü");
+        
+        int pageSize = clampPageSize(size);
+        List<ProductView> views = productRepository.findRowPage(ProductPage.decodeToken(token), Limit.of(pageSize + 1))
+            .stream()
+            .map(row -> new ProductView(row.id(), row.name(), row.price(), categoryDictionary.nameOf(row.categoryId())))
+            .toList();
+        
+        return ProductPage.of(views, pageSize, ProductView::id);
+    }
+    
+    /**
+     * Entity fetch join ile DTO projection karşılaştırması (aynı sayfa, aynı sayıda satır)
+     * Her yol kendi read-only transaction'ında çalışır; gecikme ve thread başına allocation ölçülür.
+     * İlk iterasyonlar JIT ısınması için ölçüme dahil edilmez.
+     */
+    public List<ReadPathMeasurement> compareReadPaths(int size, int iterations) {
+        log.info("compareReadPaths - Entity fetch join vs DTO projection: size={}, iterations={}", size, iterations);
+        
+        int pageSize = clampPageSize(size);
+        TransactionTemplate readOnlyTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTemplate.setReadOnly(true);
+        
+        List<ReadPathMeasurement> measurements = List.of(
+            measure("entity-fetch-join", iterations, readOnlyTemplate,
+                () -> productRepository.findPageWithCategory(0L, Limit.of(pageSize)).size()),
+            measure("dto-projection", iterations, readOnlyTemplate,
+                () -> productRepository.findViewPage(0L, Limit.of(pageSize)).size()),
+            measure("dto-dictionary", iterations, readOnlyTemplate,
+                () -> productRepository.findRowPage(0L, Limit.of(pageSize)).stream()
+                    .map(row -> new ProductView(row.id(), row.name(), row.price(), categoryDictionary.nameOf(row.categoryId())))
+                    .toList()
+                    .size()));
+        
+        measurements.forEach(m -> log.info("{}: {} satır, ortalama {} µs, {} byte/satır",
+            m.path(), m.rows(), m.avgMicros(), m.bytesPerRow()));
+        return measurements;
+    }
+    
+    private ReadPathMeasurement measure(String path, int iterations, TransactionTemplate template, IntSupplier query) {
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        int warmup = Math.max(1, iterations / 5);
+        for (int i = 0; i < warmup; i++) {
+            template.execute(status -> query.getAsInt());
+        }
+        
+        long totalNanos = 0;
+        long totalBytes = 0;
+        int rows = 0;
+        for (int i = 0; i < iterations; i++) {
+            long bytesBefore = threadBean.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            rows = template.execute(status -> query.getAsInt());
+            totalNanos += System.nanoTime() - start;
+            totalBytes += threadBean.getCurrentThreadAllocatedBytes() - bytesBefore;
+        }
+        
+        long avgMicros = TimeUnit.NANOSECONDS.toMicros(totalNanos / Math.max(1, iterations));
+        long bytesPerRow = rows > 0 ? totalBytes / ((long) iterations * rows) : 0;
+        return new ReadPathMeasurement(path, rows, avgMicros, bytesPerRow);
+    }
+    
+    private static int clampPageSize(int size) {
+        return Math.clamp(size, 1, MAX_PAGE_SIZE);
+    }
+    
     /**
      * Batch insert optimization
+     * SEQUENCE (pooled) id + hibernate.jdbc.batch_size + reWriteBatchedInserts sayesinde
+     * her BATCH_SIZE kayıt tek round trip'te (multi-row INSERT) gönderilir.
      */
     @Transactional
-    public void batchInsertOptimized(int count) {
+    public BatchInsertResult batchInsertOptimized(int count) {
         log.info("batchInsertOptimized - Optimized batch insert: {} kayıt", count);
+        long startTime = System.nanoTime();
+        
+        insertProducts(0, count);
+        
+        BatchInsertResult result = BatchInsertResult.of(count, System.nanoTime() - startTime);
+        log.info("Batch insert tamamlandı: {} kayıt, {} ms, {} rows/sec",
+            count, result.elapsedMillis(), result.rowsPerSecond());
+        return result;
+    }
+    
+    /**
+     * Parallel chunked ingest
+     * count kayıt chunkSize'lık parçalara bölünür, her parça bir virtual thread'de kendi transaction'ında commit edilir.
+     * Tek dev transaction yerine kısa transaction'lar: kilitler ve WAL dakikalarca tutulmaz.
+     * Aynı anda çalışan chunk sayısı connection pool boyutunu geçmez (fazlası sadece pool'da beklerdi).
+     *
+     * Bu metot bilerek @Transactional değil; başarısız chunk'lar diğerlerini geri almaz, sonuçta raporlanır.
+     */
+    public ParallelInsertResult parallelInsert(int count, int chunkSize, int parallelism) {
+        int chunk = Math.max(BATCH_SIZE, chunkSize);
+        int permits = Math.clamp(parallelism, 1, connectionPoolMonitor.writePoolMaximumSize());
+        log.info("parallelInsert - {} kayıt, chunk={}, paralellik={}", count, chunk, permits);
+        long startTime = System.nanoTime();
+        
+        TransactionTemplate chunkTemplate = new TransactionTemplate(transactionManager);
+        Semaphore connections = new Semaphore(permits);
+        AtomicLong written = new AtomicLong();
+        List<ChunkFailure> failures = new CopyOnWriteArrayList<>();
+        int chunks = 0;
+        
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int from = 0; from < count; from += chunk) {
+                int start = from;
+                int end = Math.min(count, from + chunk);
+                chunks++;
+                executor.submit(() -> {
+                    connections.acquireUninterruptibly();
+                    try {
+                        chunkTemplate.executeWithoutResult(status -> insertProducts(start, end));
+                        written.addAndGet(end - start);
+                    } catch (RuntimeException e) {
+                        log.warn("Chunk [{}, {}) başarısız: {}", start, end, e.getMessage());
+                        failures.add(new ChunkFailure(start, end, e.getMessage()));
+                    } finally {
+                        connections.release();
+                    }
+                });
+            }
+        }
         
-        for (int i = 0; i < count; i++) {
+        long elapsedNanos = System.nanoTime() - startTime;
+        long rowsPerSecond = elapsedNanos > 0 ? written.get() * 1_000_000_000L / elapsedNanos : written.get();
+        ParallelInsertResult result = new ParallelInsertResult(count, written.get(), chunks, failures,
+            TimeUnit.NANOSECONDS.toMillis(elapsedNanos), rowsPerSecond);
+        log.info("Parallel insert tamamlandı: {} / {} kayıt, {} başarısız chunk, {} ms",
+            result.rowsWritten(), count, failures.size(), result.elapsedMillis());
+        return result;
+    }
+    
+    /**
+     * [from, to) aralığındaki product'ları mevcut transaction'da ekler
+     */
+    private void insertProducts(int from, int to) {
+        for (int i = from; i < to; i++) {
             Product product = new Product();
             product.setName("Product " + i);
             product.setPrice(100.0 + i);
             product.setStock(100);
             
-            productRepository.save(product);
+            entityManager.persist(product);
             
-            // Her 50 kayıtta bir flush
-            if (i % 50 == 0 && i > 0) {
+            // Her BATCH_SIZE kayıtta bir flush: JDBC batch gönderilir, persistence context boşaltılır
+            if ((i - from + 1) % BATCH_SIZE == 0) {
                 entityManager.flush();
                 entityManager.clear();
-                log.info("Flush yapıldı: {} kayıt", i);
+                log.debug("Flush yapıldı: {} kayıt", i - from + 1);
             }
         }
+        entityManager.flush();
+        entityManager.clear();
+    }
+    
+    /**
+     * Bulk repricing: "category C'deki fiyatları %X artır"
+     * Entity'ler tek tek yüklenip kaydedilmez; id aralıklarına bölünmüş set-based UPDATE'ler çalışır.
+     * Her chunk kendi transaction'ında commit edilir, böylece satır kilitleri kısa süre tutulur.
+     *
+     * Bir chunk hata verirse önceki chunk'lar commit edilmiş kalır; dönen lastId afterId olarak verilerek
+     * kalan kısımdan devam edilebilir (aynı aralığı tekrar çalıştırmak fiyatı iki kez artırır).
+     * Commit edilen chunk'lar geri alınamadığı için parametreler ilk chunk'tan önce doğrulanır:
+     * percent sonlu ve -100'den büyük olmalı (fiyatlar sıfır/negatif, NaN veya Infinity olmasın), category var olmalı.
+     */
+    public RepriceResult repriceCategory(Long categoryId, double percent, int chunkSize, Long afterId) {
+        log.info("repriceCategory - category={}, percent={}, chunkSize={}", categoryId, percent, chunkSize);
+        if (!Double.isFinite(percent) || percent <= -100) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "percent sonlu ve -100'den büyük olmalı: " + percent);
+        }
+        if (!categoryRepository.existsById(categoryId)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Category bulunamadı: " + categoryId);
+        }
+        long startTime = System.nanoTime();
+        
+        double factor = 1 + percent / 100.0;
+        int limit = Math.max(1, chunkSize);
+        TransactionTemplate chunkTemplate = new TransactionTemplate(transactionManager);
         
-        log.info("Batch insert tamamlandı");
+        long updatedRows = 0;
+        int chunks = 0;
+        long lastId = afterId != null ? afterId : 0L;
+        while (true) {
+            long from = lastId;
+            Long to = productRepository.findRepriceChunkUpperBound(categoryId, from, limit);
+            if (to == null) {
+                break;
+            }
+            
+            Integer updated = chunkTemplate.execute(status ->
+                productRepository.updatePriceInRange(categoryId, factor, from, to));
+            updatedRows += updated != null ? updated : 0;
+            chunks++;
+            lastId = to;
+            log.debug("Chunk {} commit edildi: id ({}, {}], {} satır", chunks, from, to, updated);
+        }
+        
+        RepriceResult result = new RepriceResult(updatedRows, chunks, lastId,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        log.info("Repricing tamamlandı: {} satır, {} chunk, {} ms", result.updatedRows(), result.chunks(), result.elapsedMillis());
+        return result;
+    }
+    
+    /**
+     * Bulk load: PostgreSQL COPY ... FROM STDIN
+     * Satırlar persistence context'e hiç girmez; stream doğrudan CopyManager'a aktarılır.
+     * Spring transaction'ının connection'ı kullanılır, rollback olursa COPY de geri alınır.
+     *
+     * Kolonlar: name, price, stock, category_id (stock ve category_id boş bırakılabilir)
+     * id'ler tablo üzerinde default olmadığı için önce geçici staging tablosuna COPY yapılır,
+     * sonra products_performance_seq'ten blok blok ayrılan id'lerle tek INSERT ... SELECT çalışır.
+     */
+    @Transactional
+    public BulkLoadResult bulkLoadWithCopy(InputStream input, CopyFormat format, boolean header) {
+        log.info("bulkLoadWithCopy - COPY FROM STDIN ile bulk load: format={}", format);
+        long startTime = System.nanoTime();
+        CountingInputStream countingInput = new CountingInputStream(input);
+        
+        long rows = entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("""
+                    CREATE TEMP TABLE IF NOT EXISTS products_performance_staging (
+                        name VARCHAR(255) NOT NULL,
+                        price DOUBLE PRECISION NOT NULL,
+                        stock INTEGER,
+                        category_id BIGINT
+                    ) ON COMMIT DELETE ROWS
+                    """);
+            }
+            
+            long copied;
+            try {
+                CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+                copied = copyManager.copyIn(
+                    "COPY products_performance_staging (name, price, stock, category_id) FROM STDIN " + format.options(header),
+                    countingInput);
+            } catch (IOException e) {
+                throw new UncheckedIOException("COPY stream okunamadı", e);
+            }
+            
+            // Her nextval pooled optimizer'daki gibi BATCH_SIZE'lık bir id bloğu ayırır (hi - BATCH_SIZE + 1 .. hi),
+            // böylece Hibernate'in ürettiği id'lerle çakışma olmaz. Yeni sequence'ın ilk değeri (1) bir bloğun üstü
+            // değildir (Hibernate onu başlangıç değeri sayar): hi < BATCH_SIZE olan blok atlanır, yerine bir fazla blok alınır
+            try (PreparedStatement statement = connection.prepareStatement("""
+                    WITH reserved AS (
+                        SELECT nextval('products_performance_seq') AS hi
+                        FROM generate_series(1, (? + ? - 1) / ? + 1)
+                    ), blocks AS (
+                        SELECT hi, row_number() OVER (ORDER BY hi) - 1 AS block_no FROM reserved WHERE hi >= ?
+                    ), staged AS (
+                        SELECT s.*, row_number() OVER () - 1 AS rn FROM products_performance_staging s
+                    )
+                    INSERT INTO products_performance (id, name, price, stock, category_id)
+                    SELECT b.hi - ? + 1 + staged.rn % ?, staged.name, staged.price, staged.stock, staged.category_id
+                    FROM staged JOIN blocks b ON b.block_no = staged.rn / ?
+                    """)) {
+                statement.setLong(1, copied);
+                statement.setInt(2, BATCH_SIZE);
+                statement.setInt(3, BATCH_SIZE);
+                statement.setInt(4, BATCH_SIZE);
+                statement.setInt(5, BATCH_SIZE);
+                statement.setInt(6, BATCH_SIZE);
+                statement.setInt(7, BATCH_SIZE);
+                statement.executeUpdate();
+            }
+            return copied;
+        });
+        
+        BulkLoadResult result = new BulkLoadResult(rows, countingInput.getCount(),
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        log.info("Bulk load tamamlandı: {} kayıt, {} byte, {} ms", result.rows(), result.bytes(), result.elapsedMillis());
+        return result;
+    }
+    
+    public record BatchInsertResult(int count, long elapsedMillis, long rowsPerSecond) {
+        
+        static BatchInsertResult of(int count, long elapsedNanos) {
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+            long rowsPerSecond = elapsedNanos > 0 ? count * 1_000_000_000L / elapsedNanos : count;
+            return new BatchInsertResult(count, elapsedMillis, rowsPerSecond);
+        }
+    }
+    
+    /**
+     * Keyset sayfası: nextToken null ise son sayfadır.
+     * Bir sonraki sayfa için nextToken aynen geri gönderilir (son id'nin Base64 hali).
+     */
+    public record ProductPage<T>(List<T> items, String nextToken) {
+        
+        /**
+         * Sorgu pageSize + 1 kayıt ile çalıştırılır; fazladan gelen kayıt bir sonraki sayfanın olduğunu gösterir
+         */
+        static <T> ProductPage<T> of(List<T> fetched, int pageSize, Function<T, Long> idOf) {
+            if (fetched.size() <= pageSize) {
+                return new ProductPage<>(fetched, null);
+            }
+            List<T> items = fetched.subList(0, pageSize);
+            return new ProductPage<>(items, encodeToken(idOf.apply(items.getLast())));
+        }
+        
+        public static String encodeToken(Long lastId) {
+            return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(lastId.toString().getBytes(StandardCharsets.US_ASCII));
+        }
+        
+        /**
+         * Bozuk token istemci hatasıdır: 500 yerine 400 Bad Request döner
+         */
+        static Long decodeToken(String token) {
+            if (token == null || token.isBlank()) {
+                return 0L;
+            }
+            try {
+                return Long.valueOf(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII));
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Geçersiz continuation token: " + token, e);
+            }
+        }
+    }
+    
+    /**
+     * Export satırı: Hibernate proxy'si yerine düz alanlar serialize edilir
+     */
+    public record ProductExportRow(Long id, String name, Double price, Integer stock, Long categoryId, String categoryName) {
+        
+        static ProductExportRow from(Product product) {
+            Category category = product.getCategory();
+            return new ProductExportRow(product.getId(), product.getName(), product.getPrice(), product.getStock(),
+                category != null ? category.getId() : null,
+                category != null ? category.getName() : null);
+        }
+    }
+    
+    public enum FetchStrategy {
+        /** Lazy proxy, her category ayrı sorgu (N+1) */
+        LAZY,
+        /** JPQL LEFT JOIN FETCH */
+        JOIN_FETCH,
+        /** @NamedEntityGraph (Product.withCategory) */
+        ENTITY_GRAPH,
+        /** Category'ler batchSize'lık IN-list sorgularıyla (multiLoad) */
+        BATCH_FETCH,
+        /** Category'ler sayfa sorgusunu subquery olarak kullanan tek sorguyla */
+        SUBSELECT
+    }
+    
+    public record FetchStrategyMeasurement(FetchStrategy strategy, int rows, Integer statements, long avgMicros) {}
+    
+    public record ReadPathMeasurement(String path, int rows, long avgMicros, long bytesPerRow) {}
+    
+    public record ParallelInsertResult(int requested, long rowsWritten, int chunks, List<ChunkFailure> failedChunks,
+                                       long elapsedMillis, long rowsPerSecond) {}
+    
+    public record ChunkFailure(int from, int to, String error) {}
+    
+    public record RepriceResult(long updatedRows, int chunks, long lastId, long elapsedMillis) {}
+    
+    public record BulkLoadResult(long rows, long bytes, long elapsedMillis) {}
+    
+    public enum CopyFormat {
+        CSV,
+        BINARY;
+        
+        String options(boolean header) {
+            return switch (this) {
+                case CSV -> header ? "(FORMAT csv, HEADER true)" : "(FORMAT csv)";
+                case BINARY -> "(FORMAT binary)";
+            };
+        }
+    }
+    
+    /**
+     * COPY'e giden byte sayısını raporlamak için
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        
+        private long count;
+        
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+        
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+        
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+        
+        long getCount() {
+            return count;
+        }
     }
 }
-
-
-